@@ -32,6 +32,7 @@ const InterviewSession: React.FC<Props> = ({ resumeData, company, jobRole, user,
   // Use refs to prevent unnecessary re-renders
   const hasStartedRef = useRef(false);
   const isProcessingRef = useRef(false);
+  const sessionIdRef = useRef<string | null>(null);
 
   const { transcript, isListening, startListening, stopListening, resetTranscript, error } = useVoiceToText();
 
@@ -104,13 +105,14 @@ const InterviewSession: React.FC<Props> = ({ resumeData, company, jobRole, user,
   // Memoized API functions to prevent re-creation
   const fetchFirstQuestion = useCallback(async () => {
     const params = new URLSearchParams({ jobRole: jobRole || '', company: company || '' });
-    const res = await fetch(`${API_URL}/api/interview/start/${user.id}?${params.toString()}`, {
+    const res = await fetch(`${API_URL}/api/interview/start?${params.toString()}`, {
       method: 'GET',
       credentials: 'include'
     });
     if (!res.ok) throw new Error('Failed to start interview');
+    sessionIdRef.current = res.headers.get('X-Interview-Session');
     return await res.text();
-  }, [jobRole, company, user.id]);
+  }, [jobRole, company]);
 
   const sendAnswerAndGetNext = useCallback(async (answerText: string) => {
     if (!answerText.trim() || isProcessingRef.current) return;
@@ -122,7 +124,10 @@ const InterviewSession: React.FC<Props> = ({ resumeData, company, jobRole, user,
     try {
       const res = await fetch(`${API_URL}/api/interview/respond`, {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: {
+          'Content-Type': 'application/json',
+          'X-Interview-Session': sessionIdRef.current ?? '',
+        },
         credentials: 'include',
         body: JSON.stringify({ answer: answerText }),
       });
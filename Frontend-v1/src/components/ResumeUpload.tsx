@@ -34,6 +34,17 @@ interface ResumeUploadProps {
   onResumeUpload: (data: ResumeData) => void;
 }  
   
+const waitForJob = async (jobId: string): Promise<ResumeData> => {
+  for (;;) {
+    await new Promise(resolve => setTimeout(resolve, 1000));
+    const res = await fetch(`${API_URL}/api/resume/jobs/${jobId}`, { credentials: 'include' });
+    if (!res.ok) throw new Error("Failed to fetch resume job");
+    const job = await res.json();
+    if (job.status === 'COMPLETED') return job.result;
+    if (job.status === 'FAILED') throw new Error(job.error || "Failed to parse resume");
+  }
+};
+
 const ResumeUpload: React.FC<ResumeUploadProps> = ({ onResumeUpload }) => {
   const { toast } = useToast();
   const { user } = useAuth();
@@ -89,15 +100,15 @@ const ResumeUpload: React.FC<ResumeUploadProps> = ({ onResumeUpload }) => {
       const formData = new FormData();
       formData.append('file', file);
 
-      const res = await fetch(`${API_URL}/api/resume/upload/${user.id}`, {
+      const res = await fetch(`${API_URL}/api/resume/jobs`, {
         method: 'POST',
         body: formData,
         credentials: 'include'
       });
 
-      if (!res.ok) throw new Error("Failed to parse resume");
+      if (!res.ok) throw new Error("Failed to queue resume");
 
-      const parsedResume = await res.json();
+      const parsedResume = await waitForJob((await res.json()).id);
       onResumeUpload(parsedResume);
       setUploadStatus('success');
 
@@ -52,6 +52,22 @@ const Home = () => {
     }
   }, [isLoading, currUser]);
 
+  // Once role and company are filled in and typing has paused, let the server start on the opening question
+  useEffect(() => {
+    if (!user || !resumeData || !company.trim() || !jobRole.trim()) return;
+    if (user.trials === 0 && !user.pro) return;
+    const timer = setTimeout(() => {
+      const params = new URLSearchParams({ jobRole, company });
+      fetch(`${API_URL}/api/interview/prefetch?${params.toString()}`, {
+        method: 'POST',
+        credentials: 'include'
+      }).catch(() => {
+        // Best effort: starting the interview asks the model itself
+      });
+    }, 1000);
+    return () => clearTimeout(timer);
+  }, [user, resumeData, company, jobRole]);
+
   const handleLogout = async () => {
     await logout();
   };
@@ -0,0 +1,83 @@
+package dev.ai.mock.benchmark;
+
+import dev.ai.mock.records.CandidateMatch;
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import dev.ai.mock.service.CandidateSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin candidate search over a synthetic pool. Technologies are drawn with a skewed distribution, so
+ * "java" matches most of the pool while "rust + webassembly" matches a handful.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateSearchBenchmark {
+
+    private static final String[] TECHNOLOGIES = {"Java", "Spring Boot", "PostgreSQL", "Docker", "Kafka", "React",
+            "TypeScript", "Kubernetes", "AWS", "Python", "Redis", "Go", "gRPC", "Terraform", "Elasticsearch", "GraphQL",
+            "Node.js", "C#", ".NET", "C++", "Scala", "Kotlin", "Rust", "WebAssembly", "Flink", "Spark", "Cassandra"};
+    private static final String[] ROLES = {"Backend Engineer", "Senior Software Engineer", "Platform Engineer",
+            "Tech Lead", "Data Engineer", "Frontend Developer", "Site Reliability Engineer"};
+
+    @Param({"10000", "100000"})
+    public int candidates;
+
+    @Param({"Kafka + Spring, 3+ years", "java", "rust + webassembly", "senior engineer 5+ years"})
+    public String query;
+
+    private CandidateSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new CandidateSearchIndex(null, false, 100, Duration.ZERO, new SimpleMeterRegistry());
+        Random random = new Random(42);
+        for (long userId = 1; userId <= candidates; userId++) {
+            index.index(userId, candidate(random, userId));
+        }
+    }
+
+    @Benchmark
+    public List<CandidateMatch> search() {
+        return index.search(query, 20);
+    }
+
+    private static ResumeContent candidate(Random random, long userId) {
+        List<String> skills = new ArrayList<>();
+        for (int i = 0; i < 4 + random.nextInt(8); i++) {
+            skills.add(skewed(random));
+        }
+        List<WorkExperience> jobs = new ArrayList<>();
+        int year = 2024;
+        for (int i = 0; i < 1 + random.nextInt(4); i++) {
+            int length = 1 + random.nextInt(4);
+            jobs.add(new WorkExperience(ROLES[random.nextInt(ROLES.length)], "Company " + random.nextInt(500),
+                    (year - length) + " - " + year, "Remote", null));
+            year -= length;
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < random.nextInt(4); i++) {
+            projects.add(new Project("Project " + i, null, skewed(random) + ", " + skewed(random)));
+        }
+        return new ResumeContent("Candidate " + userId, null, List.of(), List.of(), null, skills, List.of(),
+                jobs, List.of(), projects, List.of(), List.of());
+    }
+
+    /** Index ~ |N(0, 7)|, so the first technologies are common and the tail is rare. */
+    private static String skewed(Random random) {
+        int i = (int) Math.abs(random.nextGaussian() * 7);
+        return TECHNOLOGIES[Math.min(i, TECHNOLOGIES.length - 1)];
+    }
+}
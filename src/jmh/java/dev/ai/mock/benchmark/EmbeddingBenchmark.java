@@ -0,0 +1,72 @@
+package dev.ai.mock.benchmark;
+
+import dev.ai.mock.service.BatchingOnnxEmbeddingModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embeddings/sec of {@link BatchingOnnxEmbeddingModel} for batch sizes 1-64.
+ * The model is read from {@code -Dembedding.model} (default {@code file:models/model.onnx}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmbeddingBenchmark {
+
+    private static final String[] SAMPLES = {
+            "Java",
+            "Spring Boot microservices with Kafka and PostgreSQL",
+            "Senior Backend Engineer | Acme Corp | 2019-2023 | Built payment APIs handling 2k requests per second",
+            "Resume parser | Spring AI, PDFBox | Extracts structured JSON from PDF resumes using an LLM",
+            "Led migration of a monolith to Kubernetes, reducing deployment time from hours to minutes",
+            "Machine learning internship: trained text classifiers and deployed them behind a REST API",
+    };
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int batchSize;
+
+    private BatchingOnnxEmbeddingModel model;
+    private List<String> batch;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long embeddings;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ResourceLoader loader = new DefaultResourceLoader();
+        BatchingOnnxEmbeddingModel.Settings defaults = BatchingOnnxEmbeddingModel.Settings.defaults();
+        model = new BatchingOnnxEmbeddingModel(
+                loader.getResource(System.getProperty("embedding.model", "file:models/model.onnx")),
+                loader.getResource("classpath:/onnx/all-MiniLM-L6-v2/tokenizer.json"),
+                new BatchingOnnxEmbeddingModel.Settings(defaults.sessions(), 1, Math.max(64, defaults.maxBatchSize()),
+                        Duration.ofMillis(1), defaults.maxSequenceLength(), defaults.queueCapacity()));
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(SAMPLES[i % SAMPLES.length]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        model.close();
+    }
+
+    @Benchmark
+    public List<float[]> embedBatch(Counters counters) {
+        List<float[]> result = model.embed(batch);
+        counters.embeddings += result.size();
+        return result;
+    }
+}
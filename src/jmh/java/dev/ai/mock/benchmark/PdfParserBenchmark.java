@@ -0,0 +1,57 @@
+package dev.ai.mock.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import dev.ai.mock.service.PdfParserService;
+import dev.ai.mock.service.PdfTriageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PdfParserService} text and word extraction over generated resumes of 1, 3 and 10 pages,
+ * in both extraction modes. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfParserBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int pages;
+
+    @Param({"streaming", "in-memory"})
+    public String mode;
+
+    private PdfParserService parser;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Hosts without the standard fonts log a fallback warning per document; keep that out of the timings
+        ((Logger) LoggerFactory.getLogger("org.apache.pdfbox")).setLevel(ch.qos.logback.classic.Level.ERROR);
+        parser = new PdfParserService(ObservationRegistry.NOOP,
+                new PdfTriageService(10, 2, 100, new SimpleMeterRegistry()), mode, DataSize.ofMegabytes(8));
+        file = new MockMultipartFile("file", "resume.pdf", "application/pdf",
+                SampleResumes.pdf(SampleResumes.resume(pages), pages));
+    }
+
+    @Benchmark
+    public String parsePdfToText() throws IOException {
+        return parser.parsePdfToText(file);
+    }
+
+    @Benchmark
+    public List<String> parsePdfToWords() throws IOException {
+        return parser.parsePdfToWords(file);
+    }
+}
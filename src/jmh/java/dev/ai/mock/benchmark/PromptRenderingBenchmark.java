@@ -0,0 +1,75 @@
+package dev.ai.mock.benchmark;
+
+import dev.ai.mock.controller.InterviewController;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.service.PromptTokenCounter;
+import dev.ai.mock.service.ResumeEmbeddingIndex;
+import dev.ai.mock.service.ResumePromptAssembler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The opening-prompt work in {@link InterviewController}: the resume digest, then rendering the
+ * system and user templates the way {@code ChatClient} does. Embeddings are off (resume order),
+ * as in the offline test profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptRenderingBenchmark {
+
+    private static final String JOB_ROLE = "Backend Engineer";
+    private static final String COMPANY = "Acme Corp";
+
+    @Param({"1", "3", "10"})
+    public int scale;
+
+    private ResumePromptAssembler assembler;
+    private ResumeContent resume;
+    private String digest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ResumeEmbeddingIndex index = new ResumeEmbeddingIndex(
+                new StaticListableBeanFactory().getBeanProvider(EmbeddingModel.class), 1000);
+        PromptTokenCounter tokenCounter = new PromptTokenCounter(new DefaultResourceLoader(),
+                "classpath:/onnx/all-MiniLM-L6-v2/tokenizer.json");
+        assembler = new ResumePromptAssembler(index, tokenCounter, 600, 300);
+        resume = SampleResumes.resume(scale);
+        digest = assembler.digest(1L, resume, JOB_ROLE, COMPANY);
+    }
+
+    @Benchmark
+    public String digest() {
+        return assembler.digest(1L, resume, JOB_ROLE, COMPANY);
+    }
+
+    @Benchmark
+    public String renderTemplates() {
+        return render(digest);
+    }
+
+    @Benchmark
+    public String digestAndRender() {
+        return render(assembler.digest(1L, resume, JOB_ROLE, COMPANY));
+    }
+
+    private static String render(String digest) {
+        String system = InterviewController.START_SYSTEM_PROMPT.formatted(JOB_ROLE, COMPANY);
+        String user = PromptTemplate.builder()
+                .template(InterviewController.START_USER_PROMPT)
+                .variables(Map.of("resume", digest, "company", COMPANY, "job_role", JOB_ROLE))
+                .build()
+                .render();
+        return system + user;
+    }
+}
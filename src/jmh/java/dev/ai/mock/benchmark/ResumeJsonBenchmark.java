@@ -0,0 +1,51 @@
+package dev.ai.mock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.ai.mock.MockIntervewApplication;
+import dev.ai.mock.records.ResumeContent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResumeContent} (de)serialization with the application's SNAKE_CASE {@link ObjectMapper},
+ * the same mapper Hibernate uses for the jsonb column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeJsonBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int scale;
+
+    private ObjectMapper objectMapper;
+    private ResumeContent resume;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new MockIntervewApplication().objectMapper();
+        resume = SampleResumes.resume(scale);
+        json = objectMapper.writeValueAsBytes(resume);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(resume);
+    }
+
+    @Benchmark
+    public ResumeContent deserialize() throws IOException {
+        return objectMapper.readValue(json, ResumeContent.class);
+    }
+
+    @Benchmark
+    public ResumeContent roundTrip() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsString(resume), ResumeContent.class);
+    }
+}
@@ -0,0 +1,130 @@
+package dev.ai.mock.benchmark;
+
+import dev.ai.mock.records.Education;
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic sample corpus generated in memory, so benchmarks need neither fixtures on disk nor network.
+ * {@code scale} multiplies the number of jobs, projects and skills: 1 is a junior one-pager, 10 a long senior CV.
+ */
+final class SampleResumes {
+
+    private static final String[] ROLES = {"Backend Engineer", "Senior Software Engineer", "Platform Engineer", "Tech Lead"};
+    private static final String[] COMPANIES = {"Acme Corp", "Globex", "Initech", "Umbrella Labs", "Hooli"};
+    private static final String[] TECHNOLOGIES = {"Java", "Spring Boot", "Kafka", "PostgreSQL", "Redis", "Kubernetes",
+            "Docker", "AWS", "React", "TypeScript", "gRPC", "Elasticsearch", "Terraform", "Python", "Go"};
+    private static final String DESCRIPTION = "Designed and operated services handling 2k requests per second, "
+            + "cut p99 latency by 40 percent through caching and query tuning, mentored four engineers and "
+            + "owned the on-call rotation for the payments platform.";
+
+    private static final int LINES_PER_PAGE = 48;
+    private static final int CHARS_PER_LINE = 95;
+
+    private SampleResumes() {
+    }
+
+    static ResumeContent resume(int scale) {
+        List<String> skills = new ArrayList<>();
+        for (int i = 0; i < Math.min(TECHNOLOGIES.length, 5 + scale); i++) {
+            skills.add(TECHNOLOGIES[i]);
+        }
+        List<WorkExperience> jobs = new ArrayList<>();
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < scale; i++) {
+            jobs.add(new WorkExperience(ROLES[i % ROLES.length], COMPANIES[i % COMPANIES.length],
+                    (2023 - 2 * i - 2) + " - " + (2023 - 2 * i), "Remote", DESCRIPTION));
+            projects.add(new Project("Project " + (i + 1), "Built a " + TECHNOLOGIES[i % TECHNOLOGIES.length]
+                    + " service that ingests resumes and extracts structured data. " + DESCRIPTION,
+                    TECHNOLOGIES[i % TECHNOLOGIES.length] + ", " + TECHNOLOGIES[(i + 3) % TECHNOLOGIES.length]));
+        }
+        return new ResumeContent(
+                "Jordan Sample",
+                "Berlin, Germany",
+                List.of("jordan@example.com", "+49 30 1234567"),
+                List.of("https://github.com/jordan-sample", "https://linkedin.com/in/jordan-sample"),
+                "Backend engineer focused on reliable, observable distributed systems.",
+                skills,
+                List.of(new Education("B.Sc. Computer Science", "TU Berlin", "2012 - 2016", "Berlin")),
+                jobs,
+                scale > 2 ? List.of("Software Engineering Intern at Globex (2015)") : List.of(),
+                projects,
+                List.of("AWS Certified Developer", "CKAD"),
+                List.of("Speaker at JavaLand 2022", "Winner of the 2019 internal hackathon"));
+    }
+
+    /**
+     * Render {@code content} as a text PDF, repeating it until the document has {@code pages} pages.
+     */
+    static byte[] pdf(ResumeContent content, int pages) throws IOException {
+        List<String> source = lines(content);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            int next = 0;
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream stream = new PDPageContentStream(document, pdPage)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 10);
+                    stream.setLeading(14);
+                    stream.newLineAtOffset(50, 740);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        stream.showText(source.get(next++ % source.size()));
+                        stream.newLine();
+                    }
+                    stream.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static List<String> lines(ResumeContent content) {
+        List<String> lines = new ArrayList<>();
+        lines.add(content.candidateName() + " | " + content.location());
+        lines.add(String.join(" | ", content.contactDetails()));
+        lines.add("Objective: " + content.careerObjective());
+        lines.add("Skills: " + String.join(", ", content.skills()));
+        for (WorkExperience job : content.workExperience()) {
+            lines.add(job.role() + " at " + job.company() + " (" + job.duration() + ")");
+            wrap(job.description(), lines);
+        }
+        for (Project project : content.projects()) {
+            lines.add(project.title() + " - " + project.technologies());
+            wrap(project.description(), lines);
+        }
+        for (Education education : content.education()) {
+            lines.add(education.degree() + ", " + education.institution() + " (" + education.duration() + ")");
+        }
+        lines.add("Certifications: " + String.join(", ", content.certifications()));
+        return lines;
+    }
+
+    private static void wrap(String text, List<String> lines) {
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            if (line.length() + word.length() + 1 > CHARS_PER_LINE) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            if (!line.isEmpty()) {
+                line.append(' ');
+            }
+            line.append(word);
+        }
+        if (!line.isEmpty()) {
+            lines.add(line.toString());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package dev.ai.mock.loadtest;
+
+import dev.ai.mock.MockIntervewApplication;
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.config.SignedCookieSecurityContextRepository;
+import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.SessionTokenService;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test: starts {@link StubLlmServer}, boots the application against it (H2 unless a
+ * datasource is passed), then runs closed-loop virtual users at each concurrency level. Each user
+ * uploads a resume, starts an interview, answers once blocking and once streamed, and ends it.
+ * Per stage and endpoint it prints throughput and p50/p99/max latency.
+ * <p>
+ * Options ({@code --name=value}; any other {@code --spring...} argument is passed to the application):
+ * <ul>
+ *     <li>{@code loadtest.concurrency} comma-separated levels, default {@code 4,16,64}</li>
+ *     <li>{@code loadtest.stage-duration} per level, default {@code 30s}</li>
+ *     <li>{@code loadtest.llm.first-token-latency} stub latency before the first token, default {@code 300ms}</li>
+ *     <li>{@code loadtest.llm.tokens-per-second} stub streaming rate, default {@code 50}</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final String UPLOAD = "POST /api/resume/upload";
+    private static final String START = "GET /api/interview/start";
+    private static final String RESPOND = "POST /api/interview/respond";
+    private static final String RESPOND_STREAM = "POST /api/interview/respond/stream";
+    private static final String RESPOND_STREAM_FIRST = "  first token";
+    private static final String END = "POST /api/interview/end";
+    private static final List<String> ENDPOINTS = List.of(UPLOAD, START, RESPOND, RESPOND_STREAM, RESPOND_STREAM_FIRST, END);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<Long> userIds;
+    /** Session cookie per user, as the login would have set it. */
+    private final Map<Long, String> sessionCookies;
+    private final AtomicInteger uploads = new AtomicInteger();
+
+    private LoadTest(String baseUrl, List<Long> userIds, Map<Long, String> sessionCookies) {
+        this.baseUrl = baseUrl;
+        this.userIds = userIds;
+        this.sessionCookies = sessionCookies;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        Duration firstTokenLatency = duration(options, "loadtest.llm.first-token-latency", "300ms");
+        int tokensPerSecond = Integer.parseInt(option(options, "loadtest.llm.tokens-per-second", "50"));
+        List<Integer> levels = Arrays.stream(option(options, "loadtest.concurrency", "4,16,64").split(","))
+                .map(String::trim).map(Integer::parseInt).toList();
+        Duration stageDuration = duration(options, "loadtest.stage-duration", "30s");
+
+        try (StubLlmServer stub = new StubLlmServer(0, firstTokenLatency, tokensPerSecond)) {
+            String[] appArgs = Stream.concat(Stream.of(
+                    "--spring.profiles.active=loadtest",
+                    "--server.port=0",
+                    "--FRONTEND_URL=http://localhost:3000",
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.ai.openai.base-url=" + stub.baseUrl(),
+                    "--spring.ai.openai.api-key=stub",
+                    "--spring.ai.openai.chat.options.model=stub",
+                    "--spring.ai.model.embedding=none",
+                    "--spring.security.oauth2.client.registration.google.client-id=stub",
+                    "--spring.security.oauth2.client.registration.google.client-secret=stub",
+                    "--management.tracing.sampling.probability=0",
+                    "--logging.level.root=WARN",
+                    "--logging.level.dev.ai.mock=WARN"
+            ), Arrays.stream(args).filter(arg -> !arg.startsWith("--loadtest."))).toArray(String[]::new);
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MockIntervewApplication.class)
+                    .run(appArgs)) {
+                Environment environment = context.getEnvironment();
+                String baseUrl = "http://127.0.0.1:" + environment.getProperty("local.server.port");
+                int users = Collections.max(levels);
+                List<Long> userIds = seedUsers(context.getBean(UserRepository.class), users);
+                LoadTest loadTest = new LoadTest(baseUrl, userIds, sessionCookies(context.getBean(SessionTokenService.class), userIds));
+
+                System.out.printf("%nStub LLM: first token after %s, %d tokens/s. Stage duration %s.%n",
+                        firstTokenLatency, tokensPerSecond, stageDuration);
+                for (int concurrency : levels) {
+                    loadTest.report(concurrency, stageDuration, loadTest.runStage(concurrency, stageDuration));
+                }
+                System.out.printf("Stub LLM served %d completions.%n", stub.requests());
+            }
+        }
+    }
+
+    private Map<String, Queue> runStage(int concurrency, Duration duration) throws InterruptedException {
+        Map<String, Queue> results = new ConcurrentHashMap<>();
+        ENDPOINTS.forEach(endpoint -> results.put(endpoint, new Queue()));
+        long stopAt = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long userId = userIds.get(i);
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < stopAt) {
+                        interview(userId, results);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+        return results;
+    }
+
+    /**
+     * One virtual-user iteration. A failed step ends the iteration, since later steps depend on it.
+     */
+    private void interview(long userId, Map<String, Queue> results) {
+        if (!timed(results.get(UPLOAD), () -> upload(userId))) {
+            return;
+        }
+        String[] session = new String[1];
+        if (!timed(results.get(START), () -> {
+            HttpResponse<String> response = send(request(userId, "/api/interview/start?jobRole=Backend%20Engineer&company=Acme%20Corp").GET().build());
+            session[0] = response.headers().firstValue("X-Interview-Session").orElse(null);
+            return response.statusCode() == 200 && session[0] != null;
+        })) {
+            return;
+        }
+        timed(results.get(RESPOND), () -> send(request(userId, "/api/interview/respond")
+                .header("X-Interview-Session", session[0])
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"answer\": \"I profiled the service, found an N+1 query and batched it.\"}"))
+                .build()).statusCode() == 200);
+        long streamStart = System.nanoTime();
+        timed(results.get(RESPOND_STREAM), () -> {
+            HttpResponse<Stream<String>> response = client.send(request(userId, "/api/interview/respond/stream")
+                            .header("X-Interview-Session", session[0])
+                            .header("Accept", "text/event-stream")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"answer\": \"I would start from the traces of the slowest requests.\"}"))
+                            .timeout(Duration.ofMinutes(2))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            boolean[] first = {true};
+            boolean[] ok = {false};
+            response.body().forEach(line -> {
+                if (first[0] && line.startsWith("event:token")) {
+                    first[0] = false;
+                    results.get(RESPOND_STREAM_FIRST).add(System.nanoTime() - streamStart, true);
+                }
+                if (line.startsWith("event:done")) {
+                    ok[0] = true;
+                }
+            });
+            return response.statusCode() == 200 && ok[0];
+        });
+        timed(results.get(END), () -> send(request(userId, "/api/interview/end")
+                .header("X-Interview-Session", session[0])
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build()).statusCode() == 204);
+    }
+
+    private boolean upload(long userId) throws IOException, InterruptedException {
+        // A unique line per upload keeps the parse cache from answering instead of the model
+        byte[] pdf = pdf("LoadTest User " + userId, "Upload " + uploads.incrementAndGet() + " " + UUID.randomUUID());
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"resume.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(pdf);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return send(request(userId, "/api/resume/upload")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build()).statusCode() == 200;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(request, (name, value) -> true).timeout(Duration.ofMinutes(2)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(long userId, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", SignedCookieSecurityContextRepository.COOKIE_NAME + "=" + sessionCookies.get(userId));
+    }
+
+    private void report(int concurrency, Duration duration, Map<String, Queue> results) {
+        System.out.printf("%nConcurrency %d%n", concurrency);
+        System.out.printf("%-36s %8s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (String endpoint : ENDPOINTS) {
+            Queue queue = results.get(endpoint);
+            long[] latencies = queue.latencies();
+            if (latencies.length == 0 && queue.errors.get() == 0) {
+                continue;
+            }
+            System.out.printf("%-36s %8d %7d %9.1f %9.1f %9.1f %9.1f%n", endpoint, latencies.length, queue.errors.get(),
+                    latencies.length / (duration.toMillis() / 1000.0),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static boolean timed(Queue queue, Step step) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = step.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        } catch (Exception e) {
+            ok = false;
+        }
+        queue.add(System.nanoTime() - start, ok);
+        return ok;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        boolean run() throws Exception;
+    }
+
+    /**
+     * Latencies of successful requests and a count of failed ones.
+     */
+    private static final class Queue {
+        private final ConcurrentLinkedQueue<Long> nanos = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        void add(long latency, boolean ok) {
+            if (ok) {
+                nanos.add(latency);
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        long[] latencies() {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private static List<Long> seedUsers(UserRepository userRepository, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = new UserEntity();
+            user.setEmail("loadtest-" + i + "@example.com");
+            user.setName("LoadTest User " + i);
+            user.setProvider("loadtest");
+            user.setPro(true);
+            ids.add(userRepository.save(user).getId());
+        }
+        return ids;
+    }
+
+    private static Map<Long, String> sessionCookies(SessionTokenService sessionTokenService, List<Long> userIds) {
+        Map<Long, String> cookies = new ConcurrentHashMap<>();
+        for (long userId : userIds) {
+            cookies.put(userId, sessionTokenService.issue(userId, "loadtest-" + userId + "@example.com", List.of("USER")));
+        }
+        return cookies;
+    }
+
+    private static byte[] pdf(String... header) throws IOException {
+        List<String> lines = new ArrayList<>(Arrays.asList(header));
+        lines.add("Senior Backend Engineer, Acme Corp, 2019 - 2023");
+        lines.add("Built payment APIs handling 2k requests per second and cut p99 latency by 40 percent.");
+        lines.add("Skills: Java, Spring Boot, PostgreSQL, Kafka, Kubernetes");
+        for (int i = 0; i < 8; i++) {
+            lines.add("Owned the on-call rotation, mentored engineers and led the migration to Kubernetes.");
+        }
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                stream.beginText();
+                stream.setFont(PDType1Font.HELVETICA, 11);
+                stream.setLeading(15);
+                stream.newLineAtOffset(50, 740);
+                for (String line : lines) {
+                    stream.showText(line);
+                    stream.newLine();
+                }
+                stream.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        return Optional.ofNullable(options.getProperty(name)).orElse(defaultValue);
+    }
+
+    private static Duration duration(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        return DurationStyle.detectAndParse(option(options, name, defaultValue));
+    }
+}
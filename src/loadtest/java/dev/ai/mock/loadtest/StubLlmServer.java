@@ -0,0 +1,199 @@
+package dev.ai.mock.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal OpenAI-compatible {@code /v1/chat/completions} endpoint for load tests. It answers resume
+ * parsing prompts with canned {@code ResumeContent} JSON, structured-output prompts with a
+ * {@code {"question": ...}} object and everything else with a plain question, after
+ * {@code firstTokenLatency}; streamed answers then emit one word per {@code 1/tokensPerSecond}.
+ */
+public class StubLlmServer implements AutoCloseable {
+
+    private static final Pattern CANDIDATE = Pattern.compile("LoadTest User (\\d+)");
+    private static final String[] QUESTIONS = {
+            "Tell me about a production incident you owned end to end and what you changed afterwards.",
+            "How would you design an idempotent payment API that is safe to retry?",
+            "Walk me through how you would find the cause of a p99 latency regression.",
+            "Describe a time you disagreed with a technical decision and how it was resolved.",
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration firstTokenLatency;
+    private final int tokensPerSecond;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubLlmServer(int port, Duration firstTokenLatency, int tokensPerSecond) throws IOException {
+        this.firstTokenLatency = firstTokenLatency;
+        this.tokensPerSecond = Math.max(1, tokensPerSecond);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        server.createContext("/v1/chat/completions", this::complete);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long id = requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String prompt = request.path("messages").toString();
+            String answer = answer(prompt, id);
+            sleep(firstTokenLatency.toMillis());
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, id, answer);
+            } else {
+                byte[] body = objectMapper.writeValueAsBytes(completion(id, answer, prompt.length() / 4));
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stream(HttpExchange exchange, long id, String answer) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        List<String> tokens = tokens(answer);
+        long interval = 1000L / tokensPerSecond;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i > 0) {
+                sleep(interval);
+            }
+            ObjectNode chunk = chunk(id);
+            ((ObjectNode) chunk.withArray("choices").addObject()
+                    .put("index", 0)
+                    .putNull("finish_reason"))
+                    .putObject("delta").put("role", "assistant").put("content", tokens.get(i));
+            event(out, chunk);
+        }
+        ObjectNode last = chunk(id);
+        last.withArray("choices").addObject().put("index", 0).put("finish_reason", "stop").putObject("delta");
+        event(out, last);
+        ObjectNode usage = chunk(id);
+        usage.putArray("choices");
+        usage.set("usage", usage(answer.length() / 4, tokens.size()));
+        event(out, usage);
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void event(OutputStream out, JsonNode chunk) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private String answer(String prompt, long id) throws IOException {
+        if (prompt.contains("Resume Parsing")) {
+            Matcher matcher = CANDIDATE.matcher(prompt);
+            return objectMapper.writeValueAsString(resume(matcher.find() ? matcher.group() : "LoadTest User"));
+        }
+        String question = QUESTIONS[(int) (id % QUESTIONS.length)];
+        if (prompt.contains("\\\"question\\\"")) {
+            return objectMapper.writeValueAsString(objectMapper.createObjectNode().put("question", question));
+        }
+        return question;
+    }
+
+    private ObjectNode resume(String candidateName) {
+        ObjectNode resume = objectMapper.createObjectNode();
+        resume.put("candidateName", candidateName);
+        resume.put("location", "Berlin, Germany");
+        resume.putArray("contactDetails").add("loadtest@example.com");
+        resume.putArray("links");
+        resume.put("careerObjective", "Backend engineer focused on reliable distributed systems.");
+        resume.putArray("skills").add("Java").add("Spring Boot").add("PostgreSQL").add("Kafka").add("Kubernetes");
+        resume.putArray("education").addObject()
+                .put("degree", "B.Sc. Computer Science").put("institution", "TU Berlin")
+                .put("duration", "2012 - 2016").put("location", "Berlin");
+        ArrayNode jobs = resume.putArray("workExperience");
+        jobs.addObject().put("role", "Senior Backend Engineer").put("company", "Acme Corp")
+                .put("duration", "2019 - 2023").put("location", "Remote")
+                .put("description", "Built payment APIs handling 2k requests per second and cut p99 latency by 40 percent.");
+        resume.putArray("internships");
+        resume.putArray("projects").addObject().put("title", "Resume parser")
+                .put("description", "Extracts structured JSON from PDF resumes.").put("technologies", "Spring AI, PDFBox");
+        resume.putArray("certifications").add("AWS Certified Developer");
+        resume.putArray("achievements").add("Speaker at JavaLand 2022");
+        return resume;
+    }
+
+    private ObjectNode completion(long id, String content, int promptTokens) {
+        ObjectNode completion = objectMapper.createObjectNode();
+        completion.put("id", "stub-" + id).put("object", "chat.completion").put("created", System.currentTimeMillis() / 1000)
+                .put("model", "stub");
+        ObjectNode choice = completion.putArray("choices").addObject();
+        choice.put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        completion.set("usage", usage(promptTokens, tokens(content).size()));
+        return completion;
+    }
+
+    private ObjectNode chunk(long id) {
+        ObjectNode chunk = objectMapper.createObjectNode();
+        chunk.put("id", "stub-" + id).put("object", "chat.completion.chunk").put("created", System.currentTimeMillis() / 1000)
+                .put("model", "stub");
+        return chunk;
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        return objectMapper.createObjectNode()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == ' ') {
+                tokens.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -2,13 +2,18 @@ package dev.ai.mock;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.ai.model.transformers.autoconfigure.TransformersEmbeddingModelAutoConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// EmbeddingConfig provides the embedding model; the auto-configured one would clash with its bean name
+@SpringBootApplication(exclude = TransformersEmbeddingModelAutoConfiguration.class)
 @EnableAsync
+@EnableScheduling
 public class MockIntervewApplication {
 
 	public static void main(String[] args) {
@@ -19,6 +24,7 @@ public class MockIntervewApplication {
 	public ObjectMapper objectMapper() {
 		ObjectMapper mapper = new ObjectMapper();
 		mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+		mapper.registerModule(new JavaTimeModule());
 		return mapper;
 	}
 
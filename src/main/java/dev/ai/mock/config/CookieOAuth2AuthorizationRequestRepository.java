@@ -0,0 +1,111 @@
+package dev.ai.mock.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.ai.mock.service.SessionTokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Carries the pending OAuth2 authorization request across the provider redirect in a short-lived signed
+ * cookie, so the callback can land on any instance and login needs no HTTP session. The request is written
+ * as JSON with Spring Security's Jackson modules, whose type allowlist only admits its own types, and the
+ * cookie is signed with a key of its own.
+ */
+@Component
+public class CookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    static final String COOKIE_NAME = "MOCK_OAUTH2_REQUEST";
+    private static final String SIGNING_PURPOSE = "oauth2-authorization-request";
+    private static final Duration VALID_FOR = Duration.ofMinutes(5);
+
+    private final SessionTokenService sessionTokenService;
+    private final boolean secure;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModules(SecurityJackson2Modules.getModules(CookieOAuth2AuthorizationRequestRepository.class.getClassLoader()));
+
+    public CookieOAuth2AuthorizationRequestRepository(SessionTokenService sessionTokenService,
+                                                      @Value("${session.token.cookie.secure:false}") boolean secure) {
+        this.sessionTokenService = sessionTokenService;
+        this.secure = secure;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                OAuth2AuthorizationRequest authorizationRequest = sessionTokenService.unsignUnexpired(SIGNING_PURPOSE, cookie.getValue())
+                        .map(this::deserialize)
+                        .orElse(null);
+                // Same check as the session-backed repository: the callback must answer this request's state
+                String state = request.getParameter(OAuth2ParameterNames.STATE);
+                return authorizationRequest != null && authorizationRequest.getState().equals(state) ? authorizationRequest : null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest, HttpServletRequest request,
+                                         HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(response, "", Duration.ZERO);
+            return;
+        }
+        writeCookie(response, sessionTokenService.signWithExpiry(SIGNING_PURPOSE, serialize(authorizationRequest), VALID_FOR), VALID_FOR);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            writeCookie(response, "", Duration.ZERO);
+        }
+        return authorizationRequest;
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        // Lax, not Strict: the provider's redirect back to the callback is a cross-site top-level navigation
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private byte[] serialize(OAuth2AuthorizationRequest authorizationRequest) {
+        try {
+            return objectMapper.writeValueAsBytes(authorizationRequest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize OAuth2 authorization request", e);
+        }
+    }
+
+    /** Only ever called on bytes this application signed. */
+    private OAuth2AuthorizationRequest deserialize(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, OAuth2AuthorizationRequest.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dev.ai.mock.config;
+
+import dev.ai.mock.service.BatchingOnnxEmbeddingModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.transformers.ResourceCacheService;
+import org.springframework.ai.transformers.TransformersEmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured {@code TransformersEmbeddingModel} (excluded on the application class) with the
+ * batching ONNX engine.
+ * Disabled together with it via {@code spring.ai.model.embedding=none}.
+ * <p>
+ * A model that cannot be loaded does not stop the application: the bean is left out and every consumer
+ * falls back to its no-embedding path.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.ai.model.embedding", havingValue = "transformers", matchIfMissing = true)
+public class EmbeddingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public EmbeddingModel embeddingModel(ResourceLoader resourceLoader,
+                                         @Value("${spring.ai.embedding.transformer.onnx.modelUri:" + TransformersEmbeddingModel.DEFAULT_ONNX_MODEL_URI + "}") String modelUri,
+                                         @Value("${spring.ai.embedding.transformer.tokenizer.uri:classpath:/onnx/all-MiniLM-L6-v2/tokenizer.json}") String tokenizerUri,
+                                         @Value("${embedding.engine.sessions:0}") int sessions,
+                                         @Value("${embedding.engine.intra-op-threads:1}") int intraOpThreads,
+                                         @Value("${embedding.engine.max-batch-size:32}") int maxBatchSize,
+                                         @Value("${embedding.engine.batch-window:2ms}") Duration batchWindow,
+                                         @Value("${embedding.engine.max-sequence-length:256}") int maxSequenceLength,
+                                         @Value("${embedding.engine.queue-capacity:10000}") int queueCapacity) {
+        BatchingOnnxEmbeddingModel.Settings settings = new BatchingOnnxEmbeddingModel.Settings(
+                sessions > 0 ? sessions : BatchingOnnxEmbeddingModel.Settings.defaults().sessions(),
+                intraOpThreads, maxBatchSize, batchWindow, maxSequenceLength, queueCapacity);
+        try {
+            // Remote models are downloaded once into the same on-disk cache TransformersEmbeddingModel uses
+            Resource model = new ResourceCacheService().getCachedResource(resourceLoader.getResource(modelUri));
+            if (!model.exists()) {
+                log.warn("Embedding model {} not found; running without local embeddings", modelUri);
+                return null;
+            }
+            return new BatchingOnnxEmbeddingModel(model, resourceLoader.getResource(tokenizerUri), settings);
+        } catch (Exception e) {
+            log.warn("Embedding model {} could not be loaded; running without local embeddings", modelUri, e);
+            return null;
+        }
+    }
+}
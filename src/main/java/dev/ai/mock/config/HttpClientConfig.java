@@ -0,0 +1,35 @@
+package dev.ai.mock.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.reactive.ClientHttpConnectorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * HTTP clients behind Spring AI's RestClient (blocking calls) and WebClient (streaming calls).
+ * When {@code spring.threads.virtual.enabled=true}, both use the JDK HttpClient
+ * with a virtual-thread executor, so a request thread waiting on the model parks instead of
+ * holding a carrier thread. The JDK client multiplexes HTTP/2 streams and has no connection-pool
+ * cap, so thousands of in-flight completions do not queue behind a pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HttpClientConfig {
+
+    private final VirtualThreadTaskExecutor llmHttpExecutor = new VirtualThreadTaskExecutor("llm-http-");
+
+    @Bean
+    public ClientHttpRequestFactoryBuilder<?> clientHttpRequestFactoryBuilder() {
+        return ClientHttpRequestFactoryBuilder.jdk()
+                .withHttpClientCustomizer(client -> client.executor(llmHttpExecutor));
+    }
+
+    @Bean
+    public ClientHttpConnectorBuilder<?> clientHttpConnectorBuilder() {
+        return ClientHttpConnectorBuilder.jdk()
+                .withHttpClientCustomizer(client -> client.executor(llmHttpExecutor));
+    }
+}
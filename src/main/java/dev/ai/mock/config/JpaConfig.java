@@ -0,0 +1,78 @@
+package dev.ai.mock.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.format.FormatMapper;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@Configuration
+public class JpaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaConfig.class);
+
+    /**
+     * JSON columns are (de)serialized with the application's SNAKE_CASE mapper, so documents
+     * written before the column was mapped as JSON keep their field names. Each conversion is
+     * observed as {@code resume.json} so serialization shows up next to the DB write it belongs to.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jsonFormatMapperCustomizer(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        return properties -> properties.put(AvailableSettings.JSON_FORMAT_MAPPER,
+                new ObservedFormatMapper(new JacksonJsonFormatMapper(objectMapper), observationRegistry));
+    }
+
+    /**
+     * ddl-auto=update does not change existing column types, so on PostgreSQL convert a legacy TEXT
+     * resume_json column to jsonb.
+     */
+    @Bean
+    public ApplicationRunner resumeJsonbSchema(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equals(product)) {
+                return;
+            }
+            List<String> type = jdbcTemplate.queryForList(
+                    "SELECT data_type FROM information_schema.columns WHERE table_name = 'resumes' AND column_name = 'resume_json'",
+                    String.class);
+            if (type.isEmpty()) {
+                return;
+            }
+            if (!"jsonb".equals(type.get(0))) {
+                log.info("Migrating resumes.resume_json from {} to jsonb", type.get(0));
+                jdbcTemplate.execute("ALTER TABLE resumes ALTER COLUMN resume_json TYPE jsonb USING resume_json::jsonb");
+            }
+        };
+    }
+
+    private record ObservedFormatMapper(FormatMapper delegate, ObservationRegistry observationRegistry) implements FormatMapper {
+
+        @Override
+        public <T> T fromString(CharSequence charSequence, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+            return Observation.createNotStarted("resume.json", observationRegistry)
+                    .lowCardinalityKeyValue("operation", "read")
+                    .observe(() -> delegate.fromString(charSequence, javaType, wrapperOptions));
+        }
+
+        @Override
+        public <T> String toString(T value, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+            return Observation.createNotStarted("resume.json", observationRegistry)
+                    .lowCardinalityKeyValue("operation", "write")
+                    .observe(() -> delegate.toString(value, javaType, wrapperOptions));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.ai.mock.config;
+
+import dev.ai.mock.service.ResilientChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.time.Duration;
+
+@Configuration
+public class LlmConfig {
+
+    /**
+     * Wraps the provider's chat model so every {@code ChatClient.Builder} (built from the primary
+     * {@link ChatModel}) gets concurrency limiting, coalescing, retries and hedging. Spring AI's own
+     * retry template is reduced to a single attempt in application.properties so retries aren't stacked.
+     */
+    @Bean
+    @Primary
+    public ResilientChatModel resilientChatModel(
+            @Qualifier("openAiChatModel") ChatModel openAiChatModel,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry,
+            Environment environment,
+            @Value("${llm.resilience.timeout:60s}") Duration timeout,
+            @Value("${llm.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${llm.resilience.backoff-base:250ms}") Duration backoffBase,
+            @Value("${llm.resilience.backoff-max:4s}") Duration backoffMax,
+            @Value("${llm.resilience.limit.initial:16}") int initialLimit,
+            @Value("${llm.resilience.limit.min:1}") int minLimit,
+            @Value("${llm.resilience.limit.max:256}") int maxLimit,
+            @Value("${llm.resilience.limit.backoff-ratio:0.5}") double backoffRatio,
+            @Value("${llm.resilience.coalesce:true}") boolean coalesce,
+            @Value("${llm.resilience.hedge.enabled:false}") boolean hedge,
+            @Value("${llm.resilience.hedge.delay:10s}") Duration hedgeDelay) {
+        // Attempts run off the caller's thread so they can be timed out, hedged and cancelled;
+        // their count is bounded by the concurrency limiter, so one thread per attempt is fine.
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("llm-call-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return new ResilientChatModel(openAiChatModel, executor,
+                new ResilientChatModel.Settings(timeout, maxAttempts, backoffBase, backoffMax,
+                        initialLimit, minLimit, maxLimit, backoffRatio, coalesce, hedge, hedgeDelay),
+                meterRegistry, observationRegistry);
+    }
+}
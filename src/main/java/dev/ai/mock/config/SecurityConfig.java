@@ -1,12 +1,17 @@
 package dev.ai.mock.config;
 
+import dev.ai.mock.controller.InterviewController;
 import dev.ai.mock.entities.UserEntity;
 import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.UserAccountCache;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,12 +24,15 @@ import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,10 +43,22 @@ public class SecurityConfig {
 
     @Value("${FRONTEND_URL}")
     private String frontendUrl;
+    @Value("${admin.emails:}")
+    private List<String> adminEmails;
+    @Value("${metrics.scrape.allowed-addresses:127.0.0.1,::1}")
+    private List<String> metricsAllowedAddresses;
     private final UserRepository userRepository;
+    private final UserAccountCache userAccountCache;
+    private final SignedCookieSecurityContextRepository securityContextRepository;
+    private final CookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
 
-    public SecurityConfig(UserRepository userRepository) {
+    public SecurityConfig(UserRepository userRepository, UserAccountCache userAccountCache,
+                          SignedCookieSecurityContextRepository securityContextRepository,
+                          CookieOAuth2AuthorizationRequestRepository authorizationRequestRepository) {
         this.userRepository = userRepository;
+        this.userAccountCache = userAccountCache;
+        this.securityContextRepository = securityContextRepository;
+        this.authorizationRequestRepository = authorizationRequestRepository;
     }
 
     @Bean
@@ -49,9 +69,23 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/login", "/public/**", "/api/logout").permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        // Metrics carry per-user and per-model detail: scrapers on the allowlist, or admins
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).access(metricsAccess())
+                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
+                // Stateless: the security context lives in a signed cookie, the pending login in another
+                .securityContext(context -> context
+                        .securityContextRepository(securityContextRepository)
+                )
+                .requestCache(cache -> cache
+                        .requestCache(new NullRequestCache())
+                )
                 .oauth2Login(oauth2 -> oauth2
+                        .authorizationEndpoint(authorization -> authorization
+                                .authorizationRequestRepository(authorizationRequestRepository)
+                        )
                         .userInfoEndpoint(userInfo -> userInfo
                                 .userService(oauth2UserService())
                         )
@@ -74,16 +108,24 @@ public class SecurityConfig {
                         })
                         .invalidateHttpSession(true)
                         .clearAuthentication(true)
-                        .deleteCookies("JSESSIONID") // Clear session cookie
+                        .deleteCookies("JSESSIONID", SignedCookieSecurityContextRepository.COOKIE_NAME) // Clear session cookies
                 )
                 .sessionManagement(session -> session
-                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
-                        .maximumSessions(1)
-                        .maxSessionsPreventsLogin(false)
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 );
         return http.build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> metricsAccess() {
+        StringBuilder expression = new StringBuilder("hasAuthority('ADMIN')");
+        for (String address : metricsAllowedAddresses) {
+            if (!address.isBlank()) {
+                expression.append(" or hasIpAddress('").append(address.strip()).append("')");
+            }
+        }
+        return new WebExpressionAuthorizationManager(expression.toString());
+    }
+
     @Bean
     public OAuth2UserService<OAuth2UserRequest, OAuth2User> oauth2UserService() {
         return userRequest -> {
@@ -99,12 +141,19 @@ public class SecurityConfig {
                         newUser.setProvider("google");
                         return userRepository.save(newUser);
                     });
+            // The /api/me that follows the login redirect is then served from the cache
+            userAccountCache.put(user);
 
             Map<String, Object> attributes = new HashMap<>(oAuth2User.getAttributes());
             attributes.put("userId", user.getId());
 
+            List<SimpleGrantedAuthority> authorities = new ArrayList<>(List.of(new SimpleGrantedAuthority("USER")));
+            if (email != null && adminEmails.stream().anyMatch(email::equalsIgnoreCase)) {
+                authorities.add(new SimpleGrantedAuthority("ADMIN"));
+            }
+
             return new DefaultOAuth2User(
-                    Collections.singleton(new SimpleGrantedAuthority("USER")),
+                    authorities,
                     attributes,
                     "email"
             );
@@ -116,8 +165,8 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of(frontendUrl));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", InterviewController.SESSION_HEADER));
+        config.setExposedHeaders(List.of("Authorization", InterviewController.SESSION_HEADER));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
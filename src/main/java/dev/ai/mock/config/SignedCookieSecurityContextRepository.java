@@ -0,0 +1,132 @@
+package dev.ai.mock.config;
+
+import dev.ai.mock.service.SessionTokenService;
+import dev.ai.mock.service.SessionTokenService.SessionToken;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the security context in a signed cookie instead of the HTTP session. The principal is rebuilt
+ * from the token as the same {@link OAuth2User} (attributes {@code email} and {@code userId}) the login
+ * produced, so no instance needs a session store or a database lookup to authenticate a request.
+ */
+@Component
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "MOCK_SESSION";
+    static final String REGISTRATION_ID = "google";
+
+    private final SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+    private final SessionTokenService sessionTokenService;
+    private final boolean secure;
+    private final String sameSite;
+
+    public SignedCookieSecurityContextRepository(SessionTokenService sessionTokenService,
+                                                 @Value("${session.token.cookie.secure:false}") boolean secure,
+                                                 @Value("${session.token.cookie.same-site:Lax}") String sameSite) {
+        this.sessionTokenService = sessionTokenService;
+        this.secure = secure;
+        this.sameSite = sameSite;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = strategy.createEmptyContext();
+                    token(request).ifPresent(token -> context.setAuthentication(authentication(token)));
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return get().getAuthentication() == null;
+            }
+        };
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof OAuth2User user
+                && user.getAttribute("userId") instanceof Long userId) {
+            List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+            String token = sessionTokenService.issue(userId, user.getAttribute("email"), authorities);
+            writeCookie(response, token, sessionTokenService.ttl());
+        } else if (cookie(request).isPresent()) {
+            writeCookie(response, "", Duration.ZERO);
+        }
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return token(request).isPresent();
+    }
+
+    private Optional<SessionToken> token(HttpServletRequest request) {
+        return cookie(request).flatMap(sessionTokenService::verify);
+    }
+
+    private static Optional<String> cookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return Optional.of(cookie.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Authentication authentication(SessionToken token) {
+        List<SimpleGrantedAuthority> authorities = token.authorities().stream().map(SimpleGrantedAuthority::new).toList();
+        OAuth2User user = new DefaultOAuth2User(authorities, Map.of("email", token.email(), "userId", token.userId()), "email");
+        return new OAuth2AuthenticationToken(user, authorities, REGISTRATION_ID);
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite(sameSite)
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
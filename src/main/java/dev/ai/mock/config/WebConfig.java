@@ -1,5 +1,6 @@
 package dev.ai.mock.config;
 
+import dev.ai.mock.controller.InterviewController;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -18,6 +19,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(frontendUrl)
                 .allowedMethods("GET", "POST", "PUT", "DELETE")
                 .allowedMethods("*")
+                .exposedHeaders(InterviewController.SESSION_HEADER)
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
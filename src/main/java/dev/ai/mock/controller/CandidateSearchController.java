@@ -0,0 +1,35 @@
+package dev.ai.mock.controller;
+
+import dev.ai.mock.records.CandidateMatch;
+import dev.ai.mock.service.CandidateSearchIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/candidates")
+@CrossOrigin(origins = "${frontend.url}")
+public class CandidateSearchController {
+
+    private final CandidateSearchIndex candidateSearchIndex;
+
+    public CandidateSearchController(CandidateSearchIndex candidateSearchIndex) {
+        this.candidateSearchIndex = candidateSearchIndex;
+    }
+
+    /**
+     * Search the candidate pool
+     *
+     * @param query Skills, technologies or roles that must all match, optionally with a minimum
+     *              experience such as "Kafka + Spring, 3+ years"
+     * @param limit Maximum number of results
+     * @return Matching candidates, best first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CandidateMatch>> search(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(candidateSearchIndex.search(query, limit));
+    }
+}
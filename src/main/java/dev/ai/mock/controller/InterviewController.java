@@ -1,41 +1,141 @@
 package dev.ai.mock.controller;
 
-import dev.ai.mock.entities.ResumeJsonEntity;
-import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.AnswerScore;
 import dev.ai.mock.records.ResumeContent;
-import dev.ai.mock.repository.ResumeJsonRepository;
-import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.AnswerPreScorer;
+import dev.ai.mock.service.InterviewChatMemory;
+import dev.ai.mock.service.LlmUnavailableException;
+import dev.ai.mock.service.OpeningQuestionPrefetcher;
+import dev.ai.mock.service.OpeningQuestionPrefetcher.Opening;
+import dev.ai.mock.service.ResumePromptAssembler;
 import dev.ai.mock.service.ResumeFormatService;
+import dev.ai.mock.service.SemanticResponseCache;
+import dev.ai.mock.service.TrialService;
+import dev.ai.mock.service.UserAccountCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
 
 @RestController
 @RequestMapping("/api/interview")
 @CrossOrigin(origins = "${frontend.url}")
 public class InterviewController {
-    private final UserRepository userRepository;
+
+    private static final Logger log = LoggerFactory.getLogger(InterviewController.class);
+
+    public static final String SESSION_HEADER = "X-Interview-Session";
+
+    /**
+     * Opening prompts; the system prompt takes the job role and company via {@code formatted},
+     * the user prompt is a Spring AI template rendered with {@code resume}, {@code company} and {@code job_role}.
+     */
+    public static final String START_SYSTEM_PROMPT = """
+        You are a professional technical interviewer conducting a realistic mock interview for a job candidate.
+        The candidate has applied for the role of %s at %s.
+
+        Guidelines:
+        - Ask one question at a time.
+        - Focus on resume experiences, skills, and the job role.
+        - Include technical, behavioral, and situational questions.
+        - Adjust your questions based on previous answers.
+        - Stay professional and to-the-point. Do not explain your questions.
+
+        Begin the interview.
+        """;
+
+    public static final String START_USER_PROMPT = """
+        Hi, I’m ready for my interview. Please begin by asking questions based on my resume and the job description.
+
+        Resume:
+        {resume}
+
+        Company:
+        {company}
+
+        Job Role:
+        {job_role}
+        """;
 
     public record Question(String question) {}
 
+    /** What the client posts to respond: {@code {"answer": "..."}}. */
+    public record Answer(String answer) {
+        String text() {
+            return answer == null ? "" : answer;
+        }
+    }
+
+    private record OpeningPrompt(String system, String user, Set<String> personalTerms) {}
+
     private final ChatClient chatClient;
+    /** No memory advisor: prefetched openings belong to no conversation until an interview claims them. */
+    private final ChatClient prefetchClient;
     private final ResumeFormatService resumeFormatService;
-    private final ResumeJsonRepository resumeJsonRepository;
-    public InterviewController(ChatClient.Builder builder, ChatMemory chatMemory, ResumeFormatService resumeFormatService, ResumeJsonRepository resumeJsonRepository, UserRepository userRepository) {
-        this.resumeJsonRepository = resumeJsonRepository;
+    private final InterviewChatMemory chatMemory;
+    private final ResumePromptAssembler resumePromptAssembler;
+    private final TrialService trialService;
+    private final OpeningQuestionPrefetcher prefetcher;
+    private final UserAccountCache userAccountCache;
+    private final AnswerPreScorer answerPreScorer;
+    public InterviewController(ChatClient.Builder builder, InterviewChatMemory chatMemory, ResumeFormatService resumeFormatService,
+                               ResumePromptAssembler resumePromptAssembler, TrialService trialService,
+                               OpeningQuestionPrefetcher prefetcher, UserAccountCache userAccountCache,
+                               SemanticResponseCache semanticResponseCache, AnswerPreScorer answerPreScorer) {
+        this.trialService = trialService;
+        this.chatMemory = chatMemory;
+        this.resumePromptAssembler = resumePromptAssembler;
+        this.prefetcher = prefetcher;
+        this.userAccountCache = userAccountCache;
+        this.answerPreScorer = answerPreScorer;
+        this.prefetchClient = builder.clone()
+                .defaultAdvisors(semanticResponseCache)
+                .build();
         this.chatClient = builder
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build(), semanticResponseCache)
                 .build();
         this.resumeFormatService = resumeFormatService;
-        this.userRepository = userRepository;
     }
 
     @PostMapping("/respond")
-    public Question respond(@RequestBody String answer) {
+    public Question respond(@RequestHeader(SESSION_HEADER) String sessionId,
+                            @AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+                            @RequestBody Answer body) {
+        String conversationId = activeSession(sessionId, userId);
+        String answer = body.text();
+        Optional<String> followUp = preScore(conversationId, answer);
+        if (followUp.isPresent()) {
+            return new Question(followUp.get());
+        }
 
         return chatClient.prompt()
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId)
+                        .param(SemanticResponseCache.ENDPOINT, "respond"))
                 .user(answer)
                 .call()
                 .entity(Question.class);
@@ -43,65 +143,223 @@ public class InterviewController {
 //        return new Question("This is your next Question");
     }
 
-    @GetMapping("/start/{id}")
-    public String startInterview(@PathVariable("id") Long userId,
-                                 @RequestParam("jobRole") String jobRole,
-                                 @RequestParam("company") String company) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Streaming variant of {@link #respond(String, Long, Answer)}: tokens are pushed as Server-Sent Events
+     * as soon as the model produces them, without holding a request thread for the whole answer.
+     */
+    @PostMapping(value = "/respond/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> respondStream(@RequestHeader(SESSION_HEADER) String sessionId,
+                                                       @AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+                                                       @RequestBody Answer body) {
+        String conversationId = activeSession(sessionId, userId);
+        String answer = body.text();
+        Optional<String> followUp = preScore(conversationId, answer);
+        if (followUp.isPresent()) {
+            return toEvents(Flux.just(followUp.get()));
+        }
+        return toEvents(chatClient.prompt()
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId)
+                        .param(SemanticResponseCache.ENDPOINT, "respond"))
+                .user(answer)
+                .stream()
+                .content());
+    }
+
+    /**
+     * Local pre-scores of the session's answers so far, for reporting.
+     */
+    @GetMapping("/scores")
+    public List<AnswerScore> scores(@RequestHeader(SESSION_HEADER) String sessionId,
+                                    @AuthenticationPrincipal(expression = "attributes['userId']") Long userId) {
+        return chatMemory.scores(activeSession(sessionId, userId));
+    }
 
-//        return "Hello There Iam here to Interview you";
+    @PostMapping("/end")
+    public ResponseEntity<Void> endInterview(@RequestHeader(SESSION_HEADER) String sessionId,
+                                             @AuthenticationPrincipal(expression = "attributes['userId']") Long userId) {
+        chatMemory.clear(activeSession(sessionId, userId));
+        return ResponseEntity.noContent().build();
+    }
 
-        if (!user.isPro()) {
-            if (user.getTrials() <= 0) {
-                throw new RuntimeException("No remaining trials for mock interview.");
-            }
-            user.setTrials(user.getTrials() - 1);
-            userRepository.save(user);
+    /**
+     * Called once the candidate has picked a role and company: starts generating the opening question in the
+     * background so {@link #startInterview} can answer from it. Spends no trial; always answers 202.
+     */
+    @PostMapping("/prefetch")
+    public ResponseEntity<Void> prefetchOpening(@AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+                                                @RequestParam("jobRole") String jobRole,
+                                                @RequestParam("company") String company) {
+        boolean canStart = userAccountCache.get(userId)
+                .filter(account -> account.pro() || account.trials() > 0)
+                .isPresent();
+        if (canStart) {
+            prefetcher.prefetch(userId, jobRole, company, () -> {
+                OpeningPrompt prompt = openingPrompt(userId, jobRole, company);
+                String question = prefetchClient.prompt()
+                        .advisors(a -> a.param(SemanticResponseCache.ENDPOINT, "start")
+                                .param(SemanticResponseCache.PERSONAL_TERMS, prompt.personalTerms()))
+                        .system(prompt.system())
+                        .user(prompt.user())
+                        .call()
+                        .content();
+                return new Opening(prompt.user(), question);
+            });
         }
+        return ResponseEntity.accepted().build();
+    }
 
-        ResumeJsonEntity resumeEntity = resumeJsonRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Resume has not been uploaded yet."));
+    @GetMapping("/start")
+    public ResponseEntity<String> startInterview(@AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+                                                 @RequestParam("jobRole") String jobRole,
+                                                 @RequestParam("company") String company) {
+        consumeTrial(userId);
+        String sessionId = newSession(userId);
+        String question = prefetcher.take(userId, jobRole, company)
+                .flatMap(prefetched -> {
+                    try {
+                        return Optional.of(prefetched.join());
+                    } catch (CancellationException | CompletionException e) {
+                        return Optional.empty();
+                    }
+                })
+                .map(opening -> remember(sessionId, opening))
+                .orElseGet(() -> startPrompt(userId, sessionId, jobRole, company)
+                        .call()
+                        .content());
+        return ResponseEntity.ok()
+                .header(SESSION_HEADER, sessionId)
+                .body(question);
+    }
 
-        ResumeContent resumeContent = resumeFormatService.getResume(resumeEntity.getId());
+    /**
+     * Streaming variant of {@link #startInterview(Long, String, String)}. A prefetched question is sent as one event.
+     */
+    @GetMapping(value = "/start/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> startInterviewStream(@AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+                                                                              @RequestParam("jobRole") String jobRole,
+                                                                              @RequestParam("company") String company) {
+        consumeTrial(userId);
+        String sessionId = newSession(userId);
+        Flux<String> live = Flux.defer(() -> startPrompt(userId, sessionId, jobRole, company)
+                .stream()
+                .content());
+        Flux<String> tokens = prefetcher.take(userId, jobRole, company)
+                .map(prefetched -> Mono.fromFuture(prefetched)
+                        .map(opening -> remember(sessionId, opening))
+                        .flux()
+                        .onErrorResume(e -> live))
+                .orElse(live);
+        return ResponseEntity.ok()
+                .header(SESSION_HEADER, sessionId)
+                .body(toEvents(tokens));
+    }
 
-        String systemPrompt = """
-        You are a professional technical interviewer conducting a realistic mock interview for a job candidate.
-        The candidate has applied for the role of %s at %s.
+    /**
+     * Conversation ids are scoped to the user and to one interview, so candidates never share history.
+     */
+    private String newSession(Long userId) {
+        String sessionId = userId + ":" + UUID.randomUUID();
+        chatMemory.begin(sessionId);
+        return sessionId;
+    }
 
-        Guidelines:
-        - Ask one question at a time.
-        - Focus on resume experiences, skills, and the job role.
-        - Include technical, behavioral, and situational questions.
-        - Adjust your questions based on previous answers.
-        - Stay professional and to-the-point. Do not explain your questions.
+    /**
+     * The session, if it belongs to the caller and is still live; another user's session is as unknown as an
+     * expired one.
+     */
+    private String activeSession(String sessionId, Long userId) {
+        if (!sessionId.startsWith(userId + ":") || !chatMemory.contains(sessionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Interview session has expired.");
+        }
+        return sessionId;
+    }
 
-        Begin the interview.
-        """.formatted(jobRole, company);
+    /**
+     * Score the answer locally and record the score on the session. A trivial answer gets a templated
+     * follow-up, remembered like a model reply; otherwise empty, and the model is asked.
+     */
+    private Optional<String> preScore(String conversationId, String answer) {
+        if (!answerPreScorer.isEnabled()) {
+            return Optional.empty();
+        }
+        List<String> questions = new ArrayList<>();
+        List<String> previousAnswers = new ArrayList<>();
+        for (Message message : chatMemory.get(conversationId)) {
+            if (message.getMessageType() == MessageType.ASSISTANT) {
+                questions.add(answerPreScorer.questionText(message.getText()));
+            } else if (message.getMessageType() == MessageType.USER) {
+                previousAnswers.add(message.getText());
+            }
+        }
+        List<AnswerScore> scores = chatMemory.scores(conversationId);
+        boolean afterFollowUp = !scores.isEmpty() && scores.get(scores.size() - 1).handledLocally();
+        // After a templated follow-up the answer still replies to the model's question before it
+        int asked = questions.size() - (afterFollowUp && questions.size() > 1 ? 2 : 1);
+        String question = asked >= 0 ? questions.get(asked) : "";
+        boolean mayHandleLocally = !afterFollowUp && !question.isBlank();
+        AnswerScore score = answerPreScorer.score(scores.size() + 1, question, previousAnswers, answer, mayHandleLocally);
+        chatMemory.recordScore(conversationId, score);
 
-        String userPrompt = """
-        Hi, I’m ready for my interview. Please begin by asking questions based on my resume and the job description.
+        Optional<String> followUp = answerPreScorer.followUp(score, question);
+        followUp.ifPresent(text -> chatMemory.add(conversationId, List.of(new UserMessage(answer), new AssistantMessage(text))));
+        return followUp;
+    }
 
-        Resume:
-        {resume}
+    private void consumeTrial(Long userId) {
+        if (!trialService.tryConsume(userId)) {
+            throw new RuntimeException("No remaining trials for mock interview.");
+        }
+    }
 
-        Company:
-        {company}
+    private ChatClient.ChatClientRequestSpec startPrompt(Long userId, String sessionId, String jobRole, String company) {
+        OpeningPrompt prompt = openingPrompt(userId, jobRole, company);
+        return chatClient.prompt()
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, sessionId)
+                        .param(SemanticResponseCache.ENDPOINT, "start")
+                        .param(SemanticResponseCache.PERSONAL_TERMS, prompt.personalTerms()))
+                .system(prompt.system())
+                .user(prompt.user());
+    }
 
-        Job Role:
-        {job_role}
-        """;
+    /**
+     * Rendered here rather than by the client, so a prefetched opening carries the exact user message
+     * that goes into the conversation's memory.
+     */
+    private OpeningPrompt openingPrompt(Long userId, String jobRole, String company) {
+        ResumeContent resumeContent = resumeFormatService.getResumeByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Resume has not been uploaded yet."));
+        String resume = resumePromptAssembler.digest(userId, resumeContent, jobRole, company);
 
-        return chatClient.prompt()
-                .system(systemPrompt)
-                .user( u -> {
-                    u.text(userPrompt);
-                    u.param("resume", resumeContent);
-                    u.param("company", company);
-                    u.param("job_role", jobRole);
-                })
-                .call()
-                .content();
+        String systemPrompt = START_SYSTEM_PROMPT.formatted(jobRole, company);
+        String userPrompt = PromptTemplate.builder()
+                .template(START_USER_PROMPT)
+                .variables(Map.of("resume", resume, "company", company, "job_role", jobRole))
+                .build()
+                .render();
+        return new OpeningPrompt(systemPrompt, userPrompt, resumePromptAssembler.personalTerms(resumeContent));
+    }
+
+    /**
+     * Record a prefetched opening in the session's memory as the memory advisor would have: the user
+     * prompt and the question, not the system prompt.
+     */
+    private String remember(String sessionId, Opening opening) {
+        chatMemory.add(sessionId, List.of(new UserMessage(opening.prompt()), new AssistantMessage(opening.question())));
+        return opening.question();
+    }
+
+    private Flux<ServerSentEvent<String>> toEvents(Flux<String> tokens) {
+        return tokens
+                .map(token -> ServerSentEvent.builder(token).event("token").build())
+                .concatWithValues(ServerSentEvent.<String>builder().event("done").build())
+                .onErrorResume(e -> {
+                    // Provider and internal details stay in the log; the browser gets a fixed message
+                    log.warn("Interview stream failed", e);
+                    String message = e instanceof LlmUnavailableException
+                            ? "The interviewer is busy right now. Please try again in a moment."
+                            : "Something went wrong. Please try again.";
+                    return Flux.just(ServerSentEvent.builder(message).event("error").build());
+                });
     }
 
 }
@@ -2,14 +2,27 @@ package dev.ai.mock.controller;
 
 import dev.ai.mock.entities.ResumeJsonEntity;
 import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeJob;
+import dev.ai.mock.service.LlmUnavailableException;
 import dev.ai.mock.service.PdfParserService;
+import dev.ai.mock.service.PdfRejectedException;
+import dev.ai.mock.service.PdfTriageService;
 import dev.ai.mock.service.ResumeFormatService;
+import dev.ai.mock.service.ResumeIngestionService;
 import dev.ai.mock.service.StructuredResumeParse;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 
 @RestController
 @RequestMapping("/api/resume")
@@ -19,11 +32,15 @@ public class ResumeController {
     private final PdfParserService pdfParserService;
     private final StructuredResumeParse structuredResumeParse;
     private final ResumeFormatService resumeFormatService;
+    private final ResumeIngestionService resumeIngestionService;
+    private final PdfTriageService pdfTriageService;
 
-    public ResumeController(PdfParserService pdfParserService, StructuredResumeParse structuredResumeParse, ResumeFormatService resumeFormatService) {
+    public ResumeController(PdfParserService pdfParserService, StructuredResumeParse structuredResumeParse, ResumeFormatService resumeFormatService, ResumeIngestionService resumeIngestionService, PdfTriageService pdfTriageService) {
         this.pdfParserService = pdfParserService;
+        this.pdfTriageService = pdfTriageService;
         this.structuredResumeParse = structuredResumeParse;
         this.resumeFormatService = resumeFormatService;
+        this.resumeIngestionService = resumeIngestionService;
     }
 
     /**
@@ -32,9 +49,9 @@ public class ResumeController {
      * @param file The PDF file to upload and parse
      * @return Response containing parsed words and metadata
      */
-    @PostMapping("/upload/{id}")
+    @PostMapping("/upload")
     public ResponseEntity<ResumeContent> uploadAndParseResume(
-            @PathVariable(name = "id") Long userId,
+            @AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
             @RequestParam("file") MultipartFile file) {
         try {
             // Validate file
@@ -42,31 +59,104 @@ public class ResumeController {
                 return ResponseEntity.badRequest()
                         .body(null);
             }
-            String rawText = pdfParserService.parsePdfToText(file);
+            Path spooled = Files.createTempFile("resume-", ".pdf");
+            try {
+                file.transferTo(spooled);
+                if (pdfTriageService.checkSignature(spooled).isPresent()) {
+                    return ResponseEntity.badRequest()
+                            .body(null);
+                }
+                String rawText = pdfParserService.parsePdfToText(spooled);
 
-            return ResponseEntity.ok(structuredResumeParse.structuredResume(rawText, userId));
+                return ResponseEntity.ok(structuredResumeParse.structuredResume(rawText, userId));
+            } finally {
+                Files.deleteIfExists(spooled);
+            }
 
+        } catch (PdfRejectedException e) {
+            return ResponseEntity.badRequest()
+                    .body(null);
+        } catch (LlmUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null);
         }
     }
 
-    @PostMapping("/save/{id}")
+    /**
+     * Queue a PDF resume for background parsing
+     *
+     * @param file The PDF file to upload and parse
+     * @return 202 with the queued job, or 503 when the ingestion queue is full
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ResumeJob> submitResumeJob(
+            @AuthenticationPrincipal(expression = "attributes['userId']") Long userId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        if (!pdfParserService.isValidPdfFile(file)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Path spooled = Files.createTempFile("resume-job-", ".pdf");
+        // The job owns the file once submitted; until then every exit path deletes it
+        boolean submitted = false;
+        try {
+            file.transferTo(spooled);
+            if (pdfTriageService.checkSignature(spooled).isPresent()) {
+                return ResponseEntity.badRequest().build();
+            }
+            ResumeJob job = resumeIngestionService.submit(userId, spooled);
+            submitted = true;
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/resume/jobs/" + job.id()))
+                    .body(job);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } finally {
+            if (!submitted) {
+                Files.deleteIfExists(spooled);
+            }
+        }
+    }
+
+    /**
+     * Get the status, and once completed the parsed result, of a resume job. Served from the database,
+     * so the poll need not reach the instance running the job.
+     *
+     * @param jobId The job id returned on submission
+     * @return The job, or 404 if unknown, expired or submitted by another user
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ResumeJob> getResumeJob(@PathVariable(name = "jobId") String jobId,
+                                                  @AuthenticationPrincipal(expression = "attributes['userId']") Long callerId) {
+        return resumeIngestionService.getJob(jobId)
+                .filter(job -> job.userId().equals(callerId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/save")
     public ResponseEntity<ResumeJsonEntity> saveResume(
             @RequestBody ResumeContent resumeContent,
-            @PathVariable(name = "id") Long id
+            @AuthenticationPrincipal(expression = "attributes['userId']") Long userId
     ) {
-        return resumeFormatService.saveResume(resumeContent, id);
+        return resumeFormatService.saveResume(resumeContent, userId);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ResumeContent> getResume(@PathVariable(name = "id") Long id) {
-        try {
-            return ResponseEntity.ok(resumeFormatService.getResume(id));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    /**
+     * Get the caller's saved resume
+     *
+     * @return The resume, or 404 if the caller has not saved one
+     */
+    @GetMapping
+    public ResponseEntity<ResumeContent> getResume(@AuthenticationPrincipal(expression = "attributes['userId']") Long userId) {
+        return resumeFormatService.getResumeByUserId(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -1,7 +1,8 @@
 package dev.ai.mock.controller;
 
-import dev.ai.mock.entities.UserEntity;
-import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.config.SignedCookieSecurityContextRepository;
+import dev.ai.mock.records.UserAccount;
+import dev.ai.mock.service.UserAccountCache;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -22,19 +23,20 @@ import java.util.Optional;
 @RestController
 public class UserController {
 
-    private final UserRepository userRepository;
-    public UserController(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final UserAccountCache userAccountCache;
+    public UserController(UserAccountCache userAccountCache) {
+        this.userAccountCache = userAccountCache;
     }
 
     @GetMapping("/api/me")
-    public ResponseEntity<UserEntity> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<UserAccount> getCurrentUser(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
-            String email = oauth2User.getAttribute("email");
-            Optional<UserEntity> user =  userRepository.findByEmail(email);
+        // The session token carries the user id; the account comes from the cache, not a lookup by email
+        if (authentication.getPrincipal() instanceof OAuth2User oauth2User
+                && oauth2User.getAttribute("userId") instanceof Long userId) {
+            Optional<UserAccount> user = userAccountCache.get(userId);
 
             return user.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
         }
@@ -51,11 +53,13 @@ public class UserController {
 
         SecurityContextHolder.clearContext();
 
-        Cookie cookie = new Cookie("JSESSIONID", null);
-        cookie.setPath("/");
-        cookie.setHttpOnly(true);
-        cookie.setMaxAge(0);
-        response.addCookie(cookie);
+        for (String name : new String[]{"JSESSIONID", SignedCookieSecurityContextRepository.COOKIE_NAME}) {
+            Cookie cookie = new Cookie(name, null);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(0);
+            response.addCookie(cookie);
+        }
 
         return ResponseEntity.ok().body(Map.of("message", "Logged out successfully"));
     }
@@ -0,0 +1,47 @@
+package dev.ai.mock.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One message of an interview conversation. Mapped so the schema is managed with the other tables;
+ * rows are written in batches and read by {@code InterviewMessageStore} over plain JDBC. The primary key
+ * (conversation_id, seq) is also the index a conversation is read back through, in order; the index on
+ * created_at serves the retention purge.
+ */
+@Data
+@RequiredArgsConstructor
+@Entity
+@Table(name = "interview_messages",
+        indexes = @Index(name = "idx_interview_messages_created_at", columnList = "created_at"))
+@IdClass(InterviewMessageEntity.Key.class)
+public class InterviewMessageEntity {
+
+    @Id
+    @Column(name = "conversation_id", length = 64)
+    private String conversationId;
+
+    @Id
+    @Column(name = "seq")
+    private int seq;
+
+    @Column(name = "message_type", length = 16, nullable = false)
+    private String messageType;
+
+    @Column(name = "content", columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String conversationId;
+        private int seq;
+    }
+}
@@ -1,19 +0,0 @@
-package dev.ai.mock.entities;
-
-
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-@Converter
-public class JsonbConverter implements AttributeConverter<String, String> {
-
-    @Override
-    public String convertToDatabaseColumn(String attribute) {
-        return attribute;
-    }
-
-    @Override
-    public String convertToEntityAttribute(String dbData) {
-        return dbData;
-    }
-}
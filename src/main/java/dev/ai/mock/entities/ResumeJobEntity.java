@@ -0,0 +1,57 @@
+package dev.ai.mock.entities;
+
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeJob;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * State of a background resume job, so whichever instance a status poll lands on can answer it.
+ */
+@Data
+@RequiredArgsConstructor
+@Entity
+@Table(name = "resume_jobs",
+        indexes = @Index(name = "idx_resume_jobs_updated_at", columnList = "updated_at"))
+public class ResumeJobEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private ResumeJob.Status status;
+
+    @Column(name = "result", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private ResumeContent result;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public static ResumeJobEntity of(ResumeJob job) {
+        ResumeJobEntity entity = new ResumeJobEntity();
+        entity.setId(job.id());
+        entity.setUserId(job.userId());
+        entity.setStatus(job.status());
+        entity.setResult(job.result());
+        entity.setError(job.error());
+        entity.setUpdatedAt(job.updatedAt());
+        return entity;
+    }
+
+    public ResumeJob toJob() {
+        return new ResumeJob(id, userId, status, result, error, updatedAt);
+    }
+}
@@ -1,31 +1,53 @@
 package dev.ai.mock.entities;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.ai.mock.records.ResumeContent;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
+import java.util.Map;
+
 
 @Data
 @Getter
 @Setter
 @RequiredArgsConstructor
 @Entity
-@Table(name = "resumes")
+@Table(name = "resumes",
+        indexes = @Index(name = "idx_resumes_updated_at", columnList = "updated_at"))
 public class ResumeJsonEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "resume_json", columnDefinition = "TEXT")
+    /** Stored as jsonb and mapped straight to the record by Hibernate's JSON format mapper. */
+    @Column(name = "resume_json", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private ResumeContent resumeJson;
+
+    /**
+     * Fingerprint of each text section of the upload {@link #resumeJson} was extracted from, keyed by section name,
+     * so a re-upload only re-extracts the sections that changed. Null after a manual save.
+     */
+    @Column(name = "section_fingerprints", columnDefinition = "jsonb")
     @JdbcTypeCode(SqlTypes.JSON)
-    private String resumeJson;
+    private Map<String, String> sectionFingerprints;
 
-    @OneToOne
+    /** Set on every insert and update, so other instances can pick up resumes saved elsewhere. */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true)
-    @JsonBackReference
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private UserEntity user;
 
     public UserEntity getUser() {
@@ -44,11 +66,23 @@ public class ResumeJsonEntity {
         this.id = id;
     }
 
-    public String getResumeJson() {
+    public ResumeContent getResumeJson() {
         return resumeJson;
     }
 
-    public void setResumeJson(String resumeJson) {
+    public void setResumeJson(ResumeContent resumeJson) {
         this.resumeJson = resumeJson;
     }
+
+    public Map<String, String> getSectionFingerprints() {
+        return sectionFingerprints;
+    }
+
+    public void setSectionFingerprints(Map<String, String> sectionFingerprints) {
+        this.sectionFingerprints = sectionFingerprints;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
 }
\ No newline at end of file
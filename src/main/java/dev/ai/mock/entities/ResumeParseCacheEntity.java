@@ -0,0 +1,48 @@
+package dev.ai.mock.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@RequiredArgsConstructor
+@Entity
+@Table(name = "resume_parse_cache")
+public class ResumeParseCacheEntity {
+
+    /** SHA-256 of the normalized resume text plus prompt/model version. */
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "resume_json", columnDefinition = "TEXT", nullable = false)
+    private String resumeJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getResumeJson() {
+        return resumeJson;
+    }
+
+    public void setResumeJson(String resumeJson) {
+        this.resumeJson = resumeJson;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
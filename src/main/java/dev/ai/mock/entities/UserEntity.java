@@ -1,9 +1,12 @@
 package dev.ai.mock.entities;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Account row only. The resume is mapped from {@link ResumeJsonEntity}'s side and looked up by user id,
+ * so loading a user never reads the resume document.
+ */
 @Data
 @RequiredArgsConstructor
 @Entity
@@ -20,10 +23,6 @@ public class UserEntity {
 
     private String provider;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    @JsonManagedReference
-    private ResumeJsonEntity resume;
-
     @Column(nullable = false)
     private boolean isPro = false;
 
@@ -62,14 +61,6 @@ public class UserEntity {
         this.provider = provider;
     }
 
-    public ResumeJsonEntity getResume() {
-        return resume;
-    }
-
-    public void setResume(ResumeJsonEntity resume) {
-        this.resume = resume;
-    }
-
     public boolean isPro() {
         return isPro;
     }
@@ -0,0 +1,17 @@
+package dev.ai.mock.records;
+
+/**
+ * Local pre-score of one interview answer against the question it replies to.
+ *
+ * @param relevance      Cosine similarity of question and answer embeddings, or null without an embedding model
+ * @param lexicalOverlap Share of the question's content words that the answer uses
+ * @param repeatOf       Highest word-set similarity to an earlier answer in the session
+ * @param handledLocally Whether the answer got a templated follow-up instead of a model call
+ */
+public record AnswerScore(int turn, Verdict verdict, Double relevance, double lexicalOverlap, double repeatOf,
+                          int words, boolean handledLocally, long elapsedMicros) {
+
+    public enum Verdict {
+        OK, EMPTY, NON_ANSWER, TOO_SHORT, REPEAT, OFF_TOPIC
+    }
+}
@@ -0,0 +1,7 @@
+package dev.ai.mock.records;
+
+/**
+ * A candidate search hit; {@code yearsOfExperience} is estimated from the work experience durations.
+ */
+public record CandidateMatch(Long userId, String candidateName, double score, double yearsOfExperience) {
+}
@@ -0,0 +1,28 @@
+package dev.ai.mock.records;
+
+import java.time.Instant;
+
+public record ResumeJob(String id, Long userId, Status status, ResumeContent result, String error, Instant updatedAt) {
+
+    public enum Status { QUEUED, PROCESSING, COMPLETED, FAILED }
+
+    public static ResumeJob queued(String id, Long userId) {
+        return new ResumeJob(id, userId, Status.QUEUED, null, null, Instant.now());
+    }
+
+    public ResumeJob processing() {
+        return new ResumeJob(id, userId, Status.PROCESSING, null, null, Instant.now());
+    }
+
+    public ResumeJob completed(ResumeContent result) {
+        return new ResumeJob(id, userId, Status.COMPLETED, result, null, Instant.now());
+    }
+
+    public ResumeJob failed(String error) {
+        return new ResumeJob(id, userId, Status.FAILED, null, error, Instant.now());
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.ai.mock.records;
+
+/**
+ * A resume item as used for retrieval and prompt assembly; {@code position} is its index within its list in the resume.
+ */
+public record ResumeSection(Kind kind, int position, String text) {
+
+    /** Declaration order is the order sections are rendered in prompts. */
+    public enum Kind { SKILL, WORK_EXPERIENCE, INTERNSHIP, PROJECT, EDUCATION, CERTIFICATION, ACHIEVEMENT, OBJECTIVE }
+}
@@ -0,0 +1,7 @@
+package dev.ai.mock.records;
+
+/**
+ * The account fields of a user, without the resume; what authenticated requests need to know about the caller.
+ */
+public record UserAccount(Long id, String email, String name, String provider, boolean pro, int trials) {
+}
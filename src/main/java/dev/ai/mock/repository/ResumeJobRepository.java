@@ -0,0 +1,20 @@
+package dev.ai.mock.repository;
+
+import dev.ai.mock.entities.ResumeJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface ResumeJobRepository extends JpaRepository<ResumeJobEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ResumeJobEntity j WHERE j.updatedAt < :cutoff")
+    int deleteUpdatedBefore(@Param("cutoff") Instant cutoff);
+}
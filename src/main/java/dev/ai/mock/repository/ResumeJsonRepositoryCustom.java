@@ -0,0 +1,25 @@
+package dev.ai.mock.repository;
+
+import dev.ai.mock.records.ResumeContent;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+public interface ResumeJsonRepositoryCustom {
+
+    /**
+     * Only the resume document, without loading the entity or its user.
+     */
+    Optional<ResumeContent> findResumeJsonByUserId(Long userId);
+
+    /**
+     * Stream every stored resume with its owner's id, without materializing the entities.
+     */
+    void forEachResume(BiConsumer<Long, ResumeContent> consumer);
+
+    /**
+     * Like {@link #forEachResume} but only the resumes saved after {@code since}.
+     */
+    void forEachResumeUpdatedSince(Instant since, BiConsumer<Long, ResumeContent> consumer);
+}
@@ -0,0 +1,51 @@
+package dev.ai.mock.repository;
+
+import dev.ai.mock.records.ResumeContent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Hand-written because a derived {@code @Query} returning the {@link ResumeContent} record is treated by
+ * Spring Data as a DTO projection and rewritten to {@code SELECT new ResumeContent(r.resumeJson)}, which fails.
+ */
+class ResumeJsonRepositoryCustomImpl implements ResumeJsonRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ResumeContent> findResumeJsonByUserId(Long userId) {
+        return entityManager.createQuery("SELECT r.resumeJson FROM ResumeJsonEntity r WHERE r.user.id = :userId", ResumeContent.class)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachResume(BiConsumer<Long, ResumeContent> consumer) {
+        forEach(entityManager.createQuery("SELECT r.user.id, r.resumeJson FROM ResumeJsonEntity r", Object[].class), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachResumeUpdatedSince(Instant since, BiConsumer<Long, ResumeContent> consumer) {
+        forEach(entityManager.createQuery(
+                        "SELECT r.user.id, r.resumeJson FROM ResumeJsonEntity r WHERE r.updatedAt > :since", Object[].class)
+                .setParameter("since", since), consumer);
+    }
+
+    private static void forEach(TypedQuery<Object[]> query, BiConsumer<Long, ResumeContent> consumer) {
+        try (Stream<Object[]> rows = query.setHint(HibernateHints.HINT_FETCH_SIZE, 500).getResultStream()) {
+            rows.forEach(row -> consumer.accept((Long) row[0], (ResumeContent) row[1]));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.ai.mock.repository;
+
+import dev.ai.mock.entities.ResumeParseCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResumeParseCacheRepository extends JpaRepository<ResumeParseCacheEntity, String> {
+}
@@ -1,11 +1,25 @@
 package dev.ai.mock.repository;
 
 import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.UserAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     public Optional<UserEntity> findByEmail(String email);
+
+    // Atomically spends one trial (pro users keep theirs); returns 0 if the user is out of trials or missing
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.trials = CASE WHEN u.isPro = true THEN u.trials ELSE u.trials - 1 END " +
+            "WHERE u.id = :id AND (u.isPro = true OR u.trials > 0)")
+    int consumeTrial(@Param("id") Long id);
+
+    @Query("SELECT new dev.ai.mock.records.UserAccount(u.id, u.email, u.name, u.provider, u.isPro, u.trials) " +
+            "FROM UserEntity u WHERE u.id = :id")
+    Optional<UserAccount> findAccountById(@Param("id") Long id);
 }
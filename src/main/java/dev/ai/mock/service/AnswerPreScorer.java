@@ -0,0 +1,249 @@
+package dev.ai.mock.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.ai.mock.records.AnswerScore;
+import dev.ai.mock.records.AnswerScore.Verdict;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scores an interview answer on the request path before it is sent to the model: lexical features
+ * (length, content-word overlap with the question, similarity to earlier answers) and the cosine of
+ * question and answer embeddings from the local MiniLM model. Empty, evasive, one-word, repeated and
+ * clearly off-topic answers get a templated follow-up instead of a provider round trip; at most one
+ * in a row, so a candidate who keeps at it still reaches the model and the interview moves on.
+ */
+@Service
+public class AnswerPreScorer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerPreScorer.class);
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "or", "the", "to", "of", "in", "on", "for", "with", "at", "by", "from", "as", "is", "are",
+            "was", "were", "be", "been", "it", "its", "this", "that", "these", "those", "i", "you", "your", "we", "my",
+            "me", "do", "did", "does", "have", "has", "had", "can", "could", "would", "how", "what", "why", "when",
+            "where", "which", "who", "tell", "about", "describe", "explain", "so", "if", "but", "not");
+    private static final Set<String> NON_ANSWERS = Set.of(
+            "idk", "i don t know", "i dont know", "dont know", "don t know", "no idea", "not sure", "i m not sure",
+            "pass", "skip", "next", "nothing", "no", "n a", "na", "none", "no comment");
+    // MiniLM reads at most 256 tokens; the opening of an answer is what says whether it is on topic
+    private static final int MAX_EMBED_CHARS = 1000;
+
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int minWords;
+    private final double offTopicThreshold;
+    private final double repeatThreshold;
+
+    private final Timer timer;
+    private final Map<Verdict, Counter> localVerdicts = new EnumMap<>(Verdict.class);
+    private final Map<Verdict, Counter> modelVerdicts = new EnumMap<>(Verdict.class);
+
+    public AnswerPreScorer(ObjectProvider<EmbeddingModel> embeddingModel,
+                           ObjectMapper objectMapper,
+                           @Value("${interview.prescore.enabled:true}") boolean enabled,
+                           @Value("${interview.prescore.min-words:3}") int minWords,
+                           @Value("${interview.prescore.off-topic-threshold:0.1}") double offTopicThreshold,
+                           @Value("${interview.prescore.repeat-threshold:0.9}") double repeatThreshold,
+                           MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minWords = minWords;
+        this.offTopicThreshold = offTopicThreshold;
+        this.repeatThreshold = repeatThreshold;
+        this.timer = Timer.builder("interview.answer.prescore")
+                .description("Local scoring of an answer before it is sent to the model")
+                .register(meterRegistry);
+        for (Verdict verdict : Verdict.values()) {
+            localVerdicts.put(verdict, verdictCounter(verdict, "local", meterRegistry));
+            modelVerdicts.put(verdict, verdictCounter(verdict, "model", meterRegistry));
+        }
+    }
+
+    private static Counter verdictCounter(Verdict verdict, String handled, MeterRegistry meterRegistry) {
+        return Counter.builder("interview.answer.prescore.verdicts")
+                .tag("verdict", verdict.name())
+                .tag("handled", handled)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param question        The question being answered, as the model produced it
+     * @param previousAnswers The candidate's earlier messages in the session
+     * @param mayHandleLocally False if the previous answer already got a templated follow-up
+     */
+    public AnswerScore score(int turn, String question, List<String> previousAnswers, String answer, boolean mayHandleLocally) {
+        long started = System.nanoTime();
+        List<String> tokens = words(answer);
+        Set<String> answerWords = contentWords(tokens);
+        int words = tokens.size();
+        double overlap = overlap(contentWords(question), answerWords);
+        double repeatOf = 0;
+        for (String previous : previousAnswers) {
+            repeatOf = Math.max(repeatOf, jaccard(answerWords, contentWords(previous)));
+        }
+
+        Double relevance = null;
+        Verdict verdict;
+        if (words == 0) {
+            verdict = Verdict.EMPTY;
+        } else if (NON_ANSWERS.contains(String.join(" ", tokens))) {
+            verdict = Verdict.NON_ANSWER;
+        } else if (words < minWords) {
+            verdict = Verdict.TOO_SHORT;
+        } else if (!answerWords.isEmpty() && repeatOf >= repeatThreshold) {
+            verdict = Verdict.REPEAT;
+        } else {
+            relevance = relevance(question, answer);
+            // Both signals must agree: a good answer can share no words with the question
+            verdict = relevance != null && relevance < offTopicThreshold && overlap == 0 ? Verdict.OFF_TOPIC : Verdict.OK;
+        }
+
+        boolean handledLocally = mayHandleLocally && verdict != Verdict.OK;
+        long elapsed = System.nanoTime() - started;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        (handledLocally ? localVerdicts : modelVerdicts).get(verdict).increment();
+        return new AnswerScore(turn, verdict, relevance, overlap, repeatOf, words, handledLocally,
+                TimeUnit.NANOSECONDS.toMicros(elapsed));
+    }
+
+    /**
+     * The templated reply for an answer scored as handled locally.
+     */
+    public Optional<String> followUp(AnswerScore score, String question) {
+        if (!score.handledLocally()) {
+            return Optional.empty();
+        }
+        return Optional.of(switch (score.verdict()) {
+            case EMPTY -> "I didn't get an answer there. Let's try again: " + question;
+            case NON_ANSWER -> "That's fine. How would you approach it, or is there something related you have worked on? "
+                    + "The question was: " + question;
+            case TOO_SHORT -> "Could you expand on that? A concrete example from your experience would help.";
+            case REPEAT -> "That is close to what you said earlier. Could you add something new, "
+                    + "such as a different example or more detail?";
+            case OFF_TOPIC -> "Let's stay on this question: " + question;
+            case OK -> throw new IllegalStateException("OK answers go to the model");
+        });
+    }
+
+    /**
+     * The question text of an assistant message; respond asks the model for {@code {"question": ...}}.
+     */
+    public String questionText(String assistantText) {
+        if (assistantText == null) {
+            return "";
+        }
+        String text = assistantText.strip();
+        if (text.startsWith("{")) {
+            try {
+                JsonNode question = objectMapper.readTree(text).get("question");
+                if (question != null && question.isTextual()) {
+                    return question.asText();
+                }
+            } catch (Exception e) {
+                // Not JSON after all
+            }
+        }
+        return text;
+    }
+
+    private Double relevance(String question, String answer) {
+        if (embeddingModel == null || question.isBlank()) {
+            return null;
+        }
+        try {
+            List<float[]> vectors = embeddingModel.embed(List.of(truncate(question), truncate(answer)));
+            return ResumeEmbeddingIndex.dot(ResumeEmbeddingIndex.normalize(vectors.get(0)),
+                    ResumeEmbeddingIndex.normalize(vectors.get(1)));
+        } catch (RuntimeException e) {
+            log.debug("Answer relevance not scored, embedding failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String truncate(String text) {
+        return text.length() > MAX_EMBED_CHARS ? text.substring(0, MAX_EMBED_CHARS) : text;
+    }
+
+    static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        List<String> words = new ArrayList<>();
+        while (matcher.find()) {
+            words.add(matcher.group());
+        }
+        return words;
+    }
+
+    static Set<String> contentWords(String text) {
+        return contentWords(words(text));
+    }
+
+    private static Set<String> contentWords(List<String> tokens) {
+        Set<String> words = new HashSet<>();
+        for (String word : tokens) {
+            if (!STOP_WORDS.contains(word)) {
+                // Fold plain plurals, so "consumers" in the question matches "consumer" in the answer
+                words.add(word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")
+                        ? word.substring(0, word.length() - 1) : word);
+            }
+        }
+        return words;
+    }
+
+    /** Share of the question's content words found in the answer. */
+    static double overlap(Set<String> question, Set<String> answer) {
+        if (question.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String word : question) {
+            if (answer.contains(word)) {
+                shared++;
+            }
+        }
+        return (double) shared / question.size();
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String word : a) {
+            if (b.contains(word)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+}
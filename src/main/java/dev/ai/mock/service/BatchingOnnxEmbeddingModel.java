@@ -0,0 +1,359 @@
+package dev.ai.mock.service;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.AbstractEmbeddingModel;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU embedding engine for the MiniLM ONNX model.
+ * <p>
+ * Texts from concurrent callers are queued and micro-batched into a single inference call.
+ * Each worker thread owns its own {@link OrtSession} (single intra-op thread by default, so
+ * workers scale with cores instead of fighting over them) and pre-allocated direct buffers
+ * for the input ids, masks and the pinned output tensor, so the hot path does not allocate
+ * tensor-sized arrays. Embeddings are mean-pooled over the attention mask, matching
+ * Spring AI's {@code TransformersEmbeddingModel}.
+ */
+public class BatchingOnnxEmbeddingModel extends AbstractEmbeddingModel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingOnnxEmbeddingModel.class);
+
+    private static final String INPUT_IDS = "input_ids";
+    private static final String ATTENTION_MASK = "attention_mask";
+    private static final String TOKEN_TYPE_IDS = "token_type_ids";
+    private static final String OUTPUT_NAME = "last_hidden_state";
+
+    public record Settings(int sessions, int intraOpThreads, int maxBatchSize, Duration batchWindow,
+                           int maxSequenceLength, int queueCapacity) {
+
+        public static Settings defaults() {
+            return new Settings(Math.min(4, Runtime.getRuntime().availableProcessors()), 1, 32,
+                    Duration.ofMillis(2), 256, 10_000);
+        }
+    }
+
+    private final OrtEnvironment environment = OrtEnvironment.getEnvironment();
+    private final HuggingFaceTokenizer tokenizer;
+    private final Settings settings;
+    private final int hiddenSize;
+    private final BlockingQueue<Request> queue;
+    private final List<Worker> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public BatchingOnnxEmbeddingModel(Resource model, Resource tokenizerJson, Settings settings) throws IOException, OrtException {
+        this.settings = settings;
+        this.queue = new LinkedBlockingQueue<>(settings.queueCapacity());
+        try (InputStream in = tokenizerJson.getInputStream()) {
+            this.tokenizer = HuggingFaceTokenizer.newInstance(in, Map.of(
+                    "maxLength", String.valueOf(settings.maxSequenceLength()),
+                    "truncation", "true",
+                    "padding", "false"));
+        }
+
+        int hidden = -1;
+        try {
+            byte[] modelBytes = model.isFile() ? null : model.getContentAsByteArray();
+            String modelPath = model.isFile() ? model.getFile().getPath() : null;
+            for (int i = 0; i < settings.sessions(); i++) {
+                OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+                options.setIntraOpNumThreads(settings.intraOpThreads());
+                options.setInterOpNumThreads(1);
+                options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+                // Models with external weights (model.onnx.data) can only be resolved from a path.
+                OrtSession session = modelPath != null
+                        ? environment.createSession(modelPath, options)
+                        : environment.createSession(modelBytes, options);
+                if (hidden < 0) {
+                    hidden = hiddenSize(session);
+                }
+                Worker worker = new Worker(session, hidden);
+                workers.add(worker);
+            }
+        } catch (IOException | OrtException | RuntimeException e) {
+            // No threads are running yet; release what was created so a failed load leaks nothing
+            for (Worker worker : workers) {
+                try {
+                    worker.session.close();
+                } catch (OrtException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            tokenizer.close();
+            throw e;
+        }
+        this.hiddenSize = hidden;
+        for (int i = 0; i < workers.size(); i++) {
+            Thread thread = new Thread(workers.get(i), "onnx-embed-" + i);
+            thread.setDaemon(true);
+            workers.get(i).thread = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        List<CompletableFuture<float[]>> futures = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            futures.add(submit(text));
+        }
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                embeddings.add(new Embedding(futures.get(i).join(), i));
+            }
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Embedding failed", e.getCause());
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        try {
+            return submit(text).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Embedding failed", e.getCause());
+        }
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getFormattedContent());
+    }
+
+    @Override
+    public int dimensions() {
+        return hiddenSize;
+    }
+
+    private CompletableFuture<float[]> submit(String text) {
+        if (!running) {
+            throw new RejectedExecutionException("Embedding engine is closed");
+        }
+        Request request = new Request(text == null ? "" : text, new CompletableFuture<>());
+        if (!queue.offer(request)) {
+            throw new RejectedExecutionException("Embedding queue is full");
+        }
+        return request.future();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(1000);
+                worker.session.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (OrtException e) {
+                log.warn("Failed to close ONNX session: {}", e.getMessage());
+            }
+        }
+        tokenizer.close();
+        Request pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(new RejectedExecutionException("Embedding engine is closed"));
+        }
+    }
+
+    private static int hiddenSize(OrtSession session) throws OrtException {
+        NodeInfo output = session.getOutputInfo().get(OUTPUT_NAME);
+        if (output != null && output.getInfo() instanceof TensorInfo tensor) {
+            long[] shape = tensor.getShape();
+            if (shape.length == 3 && shape[2] > 0) {
+                return (int) shape[2];
+            }
+        }
+        return 384;
+    }
+
+    private record Request(String text, CompletableFuture<float[]> future) {}
+
+    private final class Worker implements Runnable {
+        private final OrtSession session;
+        private final boolean usesTokenTypes;
+        private final int hidden;
+        private final List<Request> batch;
+        private final String[] texts;
+        private final LongBuffer inputIds;
+        private final LongBuffer attentionMask;
+        private final LongBuffer tokenTypeIds;
+        private final FloatBuffer output;
+        private final Map<String, OnnxTensor> inputs = new HashMap<>(4);
+        private final Map<String, OnnxTensor> outputs = new HashMap<>(2);
+        private Thread thread;
+
+        Worker(OrtSession session, int hidden) {
+            this.session = session;
+            this.usesTokenTypes = session.getInputNames().contains(TOKEN_TYPE_IDS);
+            this.hidden = hidden;
+            int maxBatch = settings.maxBatchSize();
+            int maxTokens = maxBatch * settings.maxSequenceLength();
+            this.batch = new ArrayList<>(maxBatch);
+            this.texts = new String[maxBatch];
+            this.inputIds = directLongs(maxTokens);
+            this.attentionMask = directLongs(maxTokens);
+            this.tokenTypeIds = directLongs(maxTokens);
+            this.output = ByteBuffer.allocateDirect(maxTokens * hidden * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+
+        @Override
+        public void run() {
+            long windowNanos = settings.batchWindow().toNanos();
+            while (running) {
+                try {
+                    Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, settings.maxBatchSize() - batch.size());
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batch.size() < settings.maxBatchSize()) {
+                        long remaining = deadline - System.nanoTime();
+                        Request next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        queue.drainTo(batch, settings.maxBatchSize() - batch.size());
+                    }
+                    infer();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(new RejectedExecutionException("Embedding engine is closed"));
+                    break;
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            for (Request request : batch) {
+                request.future().completeExceptionally(e);
+            }
+        }
+
+        private void infer() throws OrtException {
+            int size = batch.size();
+            for (int i = 0; i < size; i++) {
+                texts[i] = batch.get(i).text();
+            }
+            Encoding[] encodings = tokenizer.batchEncode(size == texts.length ? texts : Arrays.copyOf(texts, size));
+            int seq = 1;
+            for (Encoding encoding : encodings) {
+                seq = Math.max(seq, Math.min(encoding.getIds().length, settings.maxSequenceLength()));
+            }
+
+            inputIds.clear();
+            attentionMask.clear();
+            tokenTypeIds.clear();
+            for (Encoding encoding : encodings) {
+                long[] ids = encoding.getIds();
+                long[] mask = encoding.getAttentionMask();
+                long[] types = encoding.getTypeIds();
+                int len = Math.min(ids.length, seq);
+                for (int t = 0; t < seq; t++) {
+                    boolean token = t < len;
+                    inputIds.put(token ? ids[t] : 0L);
+                    attentionMask.put(token ? mask[t] : 0L);
+                    tokenTypeIds.put(token ? types[t] : 0L);
+                }
+            }
+            inputIds.flip();
+            attentionMask.flip();
+            tokenTypeIds.flip();
+            output.clear();
+            output.limit(size * seq * hidden);
+
+            long[] shape = {size, seq};
+            try (OnnxTensor ids = OnnxTensor.createTensor(environment, inputIds, shape);
+                 OnnxTensor mask = OnnxTensor.createTensor(environment, attentionMask, shape);
+                 OnnxTensor types = OnnxTensor.createTensor(environment, tokenTypeIds, shape);
+                 OnnxTensor hiddenStates = OnnxTensor.createTensor(environment, output, new long[]{size, seq, hidden})) {
+                inputs.clear();
+                inputs.put(INPUT_IDS, ids);
+                inputs.put(ATTENTION_MASK, mask);
+                if (usesTokenTypes) {
+                    inputs.put(TOKEN_TYPE_IDS, types);
+                }
+                outputs.clear();
+                outputs.put(OUTPUT_NAME, hiddenStates);
+                session.run(inputs, outputs).close();
+            }
+
+            for (int i = 0; i < size; i++) {
+                batch.get(i).future().complete(meanPool(i, seq));
+            }
+        }
+
+        private float[] meanPool(int row, int seq) {
+            float[] pooled = new float[hidden];
+            int tokens = 0;
+            for (int t = 0; t < seq; t++) {
+                if (attentionMask.get(row * seq + t) == 0) {
+                    continue;
+                }
+                tokens++;
+                int base = (row * seq + t) * hidden;
+                for (int d = 0; d < hidden; d++) {
+                    pooled[d] += output.get(base + d);
+                }
+            }
+            if (tokens > 0) {
+                for (int d = 0; d < hidden; d++) {
+                    pooled[d] /= tokens;
+                }
+            }
+            return pooled;
+        }
+
+        private static LongBuffer directLongs(int capacity) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+    }
+}
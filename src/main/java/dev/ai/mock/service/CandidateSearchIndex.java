@@ -0,0 +1,556 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.CandidateMatch;
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import dev.ai.mock.repository.ResumeJsonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index of the candidate pool over resume skills, project technologies and work
+ * experience roles, so admins can search "Kafka + Spring, 3+ years" without loading every stored resume.
+ * <p>
+ * Each indexed resume gets a dense ordinal; posting lists are sorted {@code int[]} of ordinals. Re-indexing a
+ * user appends a new ordinal and marks the old one dead, so posting lists only ever grow at the tail; dead
+ * ordinals are squeezed out once they outnumber live ones. Built from the database on startup and kept
+ * current by {@link ResumeFormatService#saveResume}; resumes saved through other instances are picked up by
+ * a periodic catch-up on {@code resumes.updated_at}, so they show up within {@code candidate.search.catch-up-interval}.
+ */
+@Service
+public class CandidateSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CandidateSearchIndex.class);
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N}.]*(?:\\+\\+|#)?");
+    private static final Pattern MIN_YEARS = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)\\s*\\+?\\s*(?:years?|yrs?)(?:\\s+of)?(?:\\s+experience)?", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "or", "the", "with", "in", "of", "for", "experience");
+    private static final Pattern RANGE = Pattern.compile(
+            "(?:([a-z]{3})[a-z]*\\.?\\s+)?(\\d{4})\\s*(?:-|–|—|to)\\s*(?:(?:([a-z]{3})[a-z]*\\.?\\s+)?(\\d{4})|(present|current|now|date|ongoing))",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SPAN = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(years?|yrs?|months?|mos?)\\b", Pattern.CASE_INSENSITIVE);
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    /** Indexed resume fields and how much a query term matching each one counts. */
+    enum Field {
+        SKILL(3.0), TECHNOLOGY(2.0), ROLE(1.5);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final ResumeJsonRepository resumeJsonRepository;
+    private final boolean rebuildOnStartup;
+    private final int maxResults;
+    private final Duration catchUpOverlap;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, Map<String, Postings>> postings = new EnumMap<>(Field.class);
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] userIds = new long[1024];
+    private String[] names = new String[1024];
+    private float[] years = new float[1024];
+    private int size;
+    private int liveCount;
+    // Users indexed by a save while a rebuild or catch-up runs; it must not replay their older rows
+    private final Set<Long> indexedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    // Start of the last completed read from the database; null until the startup rebuild has finished
+    private volatile Instant caughtUpTo;
+
+    public CandidateSearchIndex(ResumeJsonRepository resumeJsonRepository,
+                                @Value("${candidate.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                                @Value("${candidate.search.max-results:100}") int maxResults,
+                                @Value("${candidate.search.catch-up-overlap:1m}") Duration catchUpOverlap,
+                                MeterRegistry meterRegistry) {
+        this.resumeJsonRepository = resumeJsonRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.maxResults = maxResults;
+        this.catchUpOverlap = catchUpOverlap;
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+        Gauge.builder("candidate.index.size", this, CandidateSearchIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * Load every stored resume into the index in the background; searches served meanwhile see the part loaded so far.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        long started = System.nanoTime();
+        Instant readFrom = Instant.now();
+        setRebuilding(true);
+        try {
+            resumeJsonRepository.forEachResume((userId, resumeContent) -> put(userId, resumeContent, true));
+            caughtUpTo = readFrom;
+            log.info("Candidate search index built with {} resumes in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Could not build candidate search index: {}", e.getMessage());
+        } finally {
+            setRebuilding(false);
+        }
+    }
+
+    /**
+     * Index the resumes saved since the last read from the database, including those saved through other
+     * instances. Reads back {@code candidate.search.catch-up-overlap} further than that, for rows whose
+     * timestamp was taken before a slow commit or on a node with a lagging clock; re-indexing those is harmless.
+     */
+    @Scheduled(fixedDelayString = "${candidate.search.catch-up-interval:30000}")
+    public void catchUp() {
+        Instant since = caughtUpTo;
+        if (since == null) {
+            return;
+        }
+        Instant readFrom = Instant.now();
+        setRebuilding(true);
+        try {
+            resumeJsonRepository.forEachResumeUpdatedSince(since.minus(catchUpOverlap),
+                    (userId, resumeContent) -> put(userId, resumeContent, true));
+            caughtUpTo = readFrom;
+        } catch (RuntimeException e) {
+            log.warn("Could not catch up candidate search index: {}", e.getMessage());
+        } finally {
+            setRebuilding(false);
+        }
+    }
+
+    /**
+     * Add or replace a user's resume in the index.
+     */
+    public void index(Long userId, ResumeContent resumeContent) {
+        put(userId, resumeContent, false);
+    }
+
+    private void setRebuilding(boolean rebuilding) {
+        lock.writeLock().lock();
+        try {
+            this.rebuilding = rebuilding;
+            indexedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long userId, ResumeContent resumeContent, boolean replay) {
+        Map<Field, Set<String>> terms = terms(resumeContent);
+        float experience = (float) experienceYears(resumeContent.workExperience());
+
+        lock.writeLock().lock();
+        try {
+            if (replay) {
+                // The row was read before a newer save that is already indexed
+                if (indexedDuringRebuild.contains(userId)) {
+                    return;
+                }
+            } else if (rebuilding) {
+                indexedDuringRebuild.add(userId);
+            }
+            Integer previous = ordinals.get(userId);
+            if (previous != null) {
+                live.clear(previous);
+                liveCount--;
+            }
+            if (size == userIds.length) {
+                int capacity = size + (size >> 1);
+                userIds = Arrays.copyOf(userIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                years = Arrays.copyOf(years, capacity);
+            }
+            int ordinal = size++;
+            userIds[ordinal] = userId;
+            names[ordinal] = resumeContent.candidateName();
+            years[ordinal] = experience;
+            terms.forEach((field, fieldTerms) -> {
+                Map<String, Postings> fieldPostings = postings.get(field);
+                for (String term : fieldTerms) {
+                    fieldPostings.computeIfAbsent(term, t -> new Postings()).add(ordinal);
+                }
+            });
+            ordinals.put(userId, ordinal);
+            live.set(ordinal);
+            liveCount++;
+            if (size - liveCount > Math.max(COMPACT_MIN_DEAD, liveCount)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Candidates matching every term of the query in their skills, project technologies or roles, best first.
+     * A clause like "3+ years" is a minimum on total work experience rather than a term; a query made only of
+     * such a clause ranks everyone above the minimum by experience.
+     */
+    public List<CandidateMatch> search(String query, int limit) {
+        int max = Math.max(1, Math.min(limit, maxResults));
+        double minYears = 0;
+        String text = query == null ? "" : query;
+        Matcher yearsClause = MIN_YEARS.matcher(text);
+        if (yearsClause.find()) {
+            minYears = Double.parseDouble(yearsClause.group(1));
+            text = yearsClause.replaceAll(" ");
+        }
+        List<String> terms = new ArrayList<>(tokens(text));
+        if (terms.isEmpty() && minYears == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[][] termPostings = new Postings[terms.size()][];
+            double[] idf = new double[terms.size()];
+            int driver = -1;
+            int driverFrequency = Integer.MAX_VALUE;
+            for (int t = 0; t < terms.size(); t++) {
+                termPostings[t] = new Postings[Field.values().length];
+                int frequency = 0;
+                for (Field field : Field.values()) {
+                    Postings list = postings.get(field).get(terms.get(t));
+                    termPostings[t][field.ordinal()] = list;
+                    frequency += list == null ? 0 : list.size;
+                }
+                if (frequency == 0) {
+                    return List.of();
+                }
+                idf[t] = Math.log(1 + (double) liveCount / frequency);
+                if (frequency < driverFrequency) {
+                    driver = t;
+                    driverFrequency = frequency;
+                }
+            }
+
+            // Score only the documents of the rarest term, in ordinal order, so every other posting list is probed
+            // with a cursor that only moves forward
+            int[] candidates = driver < 0 ? null : union(termPostings[driver]);
+            int count = candidates == null ? size : candidates.length;
+            int[][] cursors = new int[terms.size()][Field.values().length];
+            PriorityQueue<Scored> top = new PriorityQueue<>(max + 1, Scored.ORDER);
+            for (int i = 0; i < count; i++) {
+                int doc = candidates == null ? i : candidates[i];
+                if (!live.get(doc) || years[doc] < minYears) {
+                    continue;
+                }
+                double score = score(doc, termPostings, cursors, idf);
+                if (score < 0) {
+                    continue;
+                }
+                if (top.size() < max || Scored.ORDER.compare(top.peek(), new Scored(doc, score, years[doc])) < 0) {
+                    top.add(new Scored(doc, score, years[doc]));
+                    if (top.size() > max) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<CandidateMatch> matches = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Scored scored = top.poll();
+                matches.add(new CandidateMatch(userIds[scored.doc()], names[scored.doc()], scored.score(), scored.years()));
+            }
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sum over query terms of the best field weight the document matches the term in, times the term's idf;
+     * negative when some term does not match at all. Documents must be scored in increasing ordinal order.
+     */
+    private static double score(int doc, Postings[][] termPostings, int[][] cursors, double[] idf) {
+        double score = 0;
+        for (int t = 0; t < termPostings.length; t++) {
+            double best = 0;
+            for (Field field : Field.values()) {
+                Postings list = termPostings[t][field.ordinal()];
+                if (list == null) {
+                    continue;
+                }
+                int cursor = list.advance(cursors[t][field.ordinal()], doc);
+                cursors[t][field.ordinal()] = cursor;
+                if (field.weight > best && cursor < list.size && list.docs[cursor] == doc) {
+                    best = field.weight;
+                }
+            }
+            if (best == 0) {
+                return -1;
+            }
+            score += best * idf[t];
+        }
+        return score;
+    }
+
+    /**
+     * Sorted, de-duplicated union of up to one posting list per field.
+     */
+    private static int[] union(Postings[] lists) {
+        int[] docs = new int[0];
+        int size = 0;
+        for (Postings list : lists) {
+            if (list == null) {
+                continue;
+            }
+            int[] merged = new int[size + list.size];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < list.size) {
+                int next;
+                if (j == list.size || (i < size && docs[i] < list.docs[j])) {
+                    next = docs[i++];
+                } else if (i == size || list.docs[j] < docs[i]) {
+                    next = list.docs[j++];
+                } else {
+                    next = docs[i++];
+                    j++;
+                }
+                merged[n++] = next;
+            }
+            docs = merged;
+            size = n;
+        }
+        return size == docs.length ? docs : Arrays.copyOf(docs, size);
+    }
+
+    /**
+     * Renumber live documents densely, in their current order, and drop dead ones from every posting list.
+     */
+    private void compact() {
+        int[] remap = new int[size];
+        int next = 0;
+        for (int doc = 0; doc < size; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                userIds[next] = userIds[doc];
+                names[next] = names[doc];
+                years[next] = years[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Arrays.fill(names, next, size, null);
+        for (Map<String, Postings> fieldPostings : postings.values()) {
+            fieldPostings.values().removeIf(list -> list.remap(remap) == 0);
+        }
+        ordinals.clear();
+        live.clear();
+        for (int doc = 0; doc < next; doc++) {
+            ordinals.put(userIds[doc], doc);
+        }
+        live.set(0, next);
+        size = next;
+    }
+
+    static Map<Field, Set<String>> terms(ResumeContent resumeContent) {
+        Map<Field, Set<String>> terms = new EnumMap<>(Field.class);
+        Set<String> skills = new LinkedHashSet<>();
+        if (resumeContent.skills() != null) {
+            resumeContent.skills().forEach(skill -> skills.addAll(tokens(skill)));
+        }
+        Set<String> technologies = new LinkedHashSet<>();
+        if (resumeContent.projects() != null) {
+            for (Project project : resumeContent.projects()) {
+                if (project != null) {
+                    technologies.addAll(tokens(project.technologies()));
+                }
+            }
+        }
+        Set<String> roles = new LinkedHashSet<>();
+        if (resumeContent.workExperience() != null) {
+            for (WorkExperience work : resumeContent.workExperience()) {
+                if (work != null) {
+                    roles.addAll(tokens(work.role()));
+                }
+            }
+        }
+        terms.put(Field.SKILL, skills);
+        terms.put(Field.TECHNOLOGY, technologies);
+        terms.put(Field.ROLE, roles);
+        return terms;
+    }
+
+    /**
+     * Lower-cased words, keeping the punctuation that matters in technology names ("c++", "c#", "node.js").
+     */
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String token = matcher.group();
+            while (token.endsWith(".")) {
+                token = token.substring(0, token.length() - 1);
+            }
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Total work experience in years from the free-text durations ("Jan 2019 - Present", "2017 – 2020",
+     * "2 years 3 months"). Overlapping date ranges are counted once.
+     */
+    static double experienceYears(List<WorkExperience> workExperience) {
+        if (workExperience == null) {
+            return 0;
+        }
+        YearMonth now = YearMonth.now();
+        List<int[]> ranges = new ArrayList<>();
+        double spanMonths = 0;
+        for (WorkExperience work : workExperience) {
+            if (work == null || work.duration() == null) {
+                continue;
+            }
+            Matcher range = RANGE.matcher(work.duration());
+            boolean found = false;
+            while (range.find()) {
+                found = true;
+                int start = Integer.parseInt(range.group(2)) * 12 + month(range.group(1));
+                int end = range.group(5) != null
+                        ? now.getYear() * 12 + now.getMonthValue() - 1
+                        : Integer.parseInt(range.group(4)) * 12 + month(range.group(3));
+                if (end > start) {
+                    ranges.add(new int[]{start, end});
+                }
+            }
+            if (!found) {
+                Matcher span = SPAN.matcher(work.duration());
+                while (span.find()) {
+                    double amount = Double.parseDouble(span.group(1));
+                    spanMonths += Character.toLowerCase(span.group(2).charAt(0)) == 'y' ? amount * 12 : amount;
+                }
+            }
+        }
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        int months = 0;
+        int coveredUntil = Integer.MIN_VALUE;
+        for (int[] r : ranges) {
+            int start = Math.max(r[0], coveredUntil);
+            if (r[1] > start) {
+                months += r[1] - start;
+                coveredUntil = r[1];
+            }
+        }
+        return (months + spanMonths) / 12.0;
+    }
+
+    private static int month(String name) {
+        int index = name == null ? -1 : MONTHS.indexOf(name.toLowerCase(Locale.ROOT));
+        return index >= 0 && index % 3 == 0 ? index / 3 : 0;
+    }
+
+    /**
+     * Sorted, growable list of document ordinals. Ordinals are handed out in increasing order, so appends keep it sorted.
+     */
+    static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * First position at or after {@code from} holding an ordinal {@code >= doc}, or {@code size}; gallops
+         * ahead and then binary-searches, so skipping far costs a logarithm of the distance.
+         */
+        int advance(int from, int doc) {
+            if (from >= size || docs[from] >= doc) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            while (low + step < size && docs[low + step] < doc) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(size, low + step + 1);
+            int found = Arrays.binarySearch(docs, low + 1, high, doc);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        int remap(int[] remap) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[n++] = doc;
+                }
+            }
+            size = n;
+            if (docs.length > 16 && size < docs.length >> 2) {
+                docs = Arrays.copyOf(docs, Math.max(4, size));
+            }
+            return size;
+        }
+    }
+
+    private record Scored(int doc, double score, float years) {
+        static final Comparator<Scored> ORDER = Comparator.comparingDouble(Scored::score)
+                .thenComparingDouble(Scored::years);
+    }
+}
@@ -0,0 +1,357 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.AnswerScore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conversation-scoped chat memory for interviews.
+ * Each conversation keeps a sliding window bounded by message count and estimated tokens,
+ * idle conversations are evicted periodically and the number of live conversations is capped (LRU).
+ * <p>
+ * The in-memory window is a hot tail over {@link InterviewMessageStore}: every message is also queued
+ * for a write-behind insert, and a conversation this instance does not hold (started elsewhere, or
+ * evicted, or from before a restart) is read back from the store on first use.
+ */
+@Component
+public class InterviewChatMemory implements ChatMemory {
+
+    private static final int MAX_SCORES = 200;
+
+    private final int maxMessages;
+    private final int maxTokens;
+    private final long idleTimeoutMillis;
+    private final int maxConversations;
+    private final InterviewMessageStore store;
+    private final boolean verifyHot;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Conversation> conversations;
+
+    private final Counter idleEvictions;
+    private final Counter capacityEvictions;
+
+    public InterviewChatMemory(@Value("${interview.memory.max-messages:20}") int maxMessages,
+                               @Value("${interview.memory.max-tokens:3000}") int maxTokens,
+                               @Value("${interview.memory.idle-timeout:30m}") Duration idleTimeout,
+                               @Value("${interview.memory.max-conversations:10000}") int maxConversations,
+                               @Value("${interview.memory.store.verify-hot:true}") boolean verifyHot,
+                               InterviewMessageStore store,
+                               MeterRegistry meterRegistry) {
+        this.store = store;
+        this.verifyHot = verifyHot;
+        store.onConflict(this::markStale);
+        this.maxMessages = maxMessages;
+        this.maxTokens = maxTokens;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxConversations = maxConversations;
+        this.conversations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                if (size() > InterviewChatMemory.this.maxConversations) {
+                    capacityEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("interview.memory.conversations", this, InterviewChatMemory::size)
+                .description("Live interview conversations held in memory")
+                .register(meterRegistry);
+        this.idleEvictions = Counter.builder("interview.memory.evictions")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        this.capacityEvictions = Counter.builder("interview.memory.evictions")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a conversation that has just been created, so its first turn does not look for it in the store.
+     */
+    public void begin(String conversationId) {
+        lock.lock();
+        try {
+            conversations.putIfAbsent(conversationId, new Conversation());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        Conversation conversation = conversation(conversationId, false);
+        if (conversation == null) {
+            conversation = load(conversationId);
+        }
+        if (conversation == null) {
+            conversation = conversation(conversationId, true);
+        } else if (conversation.stale) {
+            refresh(conversationId, conversation);
+        }
+        conversation.lock.lock();
+        try {
+            for (Message message : messages) {
+                store.append(conversationId, conversation.nextSeq++, message);
+                conversation.append(message);
+            }
+            conversation.trim(maxMessages, maxTokens);
+        } finally {
+            conversation.lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        Conversation conversation = conversation(conversationId, false);
+        if (conversation == null) {
+            conversation = load(conversationId);
+            if (conversation == null) {
+                return List.of();
+            }
+        } else if (verifyHot || conversation.stale) {
+            refresh(conversationId, conversation);
+        }
+        conversation.lock.lock();
+        try {
+            return new ArrayList<>(conversation.messages);
+        } finally {
+            conversation.lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        lock.lock();
+        try {
+            conversations.remove(conversationId);
+        } finally {
+            lock.unlock();
+        }
+        store.delete(conversationId);
+    }
+
+    public boolean contains(String conversationId) {
+        lock.lock();
+        try {
+            if (conversations.containsKey(conversationId)) {
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return load(conversationId) != null;
+    }
+
+    /**
+     * Attach an answer's pre-score to the conversation for reporting. Scores live with the in-memory
+     * conversation only; they are not written to the store.
+     */
+    public void recordScore(String conversationId, AnswerScore score) {
+        Conversation conversation = conversation(conversationId, false);
+        if (conversation == null) {
+            return;
+        }
+        conversation.lock.lock();
+        try {
+            if (conversation.scores.size() >= MAX_SCORES) {
+                conversation.scores.remove(0);
+            }
+            conversation.scores.add(score);
+        } finally {
+            conversation.lock.unlock();
+        }
+    }
+
+    public List<AnswerScore> scores(String conversationId) {
+        Conversation conversation = conversation(conversationId, false);
+        if (conversation == null) {
+            return List.of();
+        }
+        conversation.lock.lock();
+        try {
+            return new ArrayList<>(conversation.scores);
+        } finally {
+            conversation.lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return conversations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${interview.memory.eviction-interval:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        lock.lock();
+        try {
+            Iterator<Conversation> it = conversations.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lastAccess < cutoff) {
+                    it.remove();
+                    idleEvictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Another node stored its own messages where this one wrote the conversation's last turn; the copy
+     * held here diverged and is read back on its next use.
+     */
+    private void markStale(String conversationId) {
+        lock.lock();
+        try {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation != null) {
+                conversation.stale = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Conversation conversation(String conversationId, boolean create) {
+        lock.lock();
+        try {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation == null && create) {
+                conversation = new Conversation();
+                conversations.put(conversationId, conversation);
+            }
+            if (conversation != null) {
+                conversation.lastAccess = System.currentTimeMillis();
+            }
+            return conversation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read a conversation this instance does not hold from the store and make it hot.
+     * @return The conversation, or null if the store has none that is still within the idle timeout
+     *         (or cannot be read)
+     */
+    private Conversation load(String conversationId) {
+        List<InterviewMessageStore.StoredMessage> stored;
+        try {
+            stored = store.load(conversationId);
+        } catch (DataAccessException e) {
+            return null;
+        }
+        if (stored.isEmpty()) {
+            return null;
+        }
+        if (stored.get(stored.size() - 1).createdAt().toEpochMilli() < System.currentTimeMillis() - idleTimeoutMillis) {
+            store.delete(conversationId);
+            return null;
+        }
+        Conversation loaded = new Conversation();
+        loaded.replace(stored, maxMessages, maxTokens);
+        lock.lock();
+        try {
+            Conversation existing = conversations.putIfAbsent(conversationId, loaded);
+            return existing != null ? existing : loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Without sticky routing another instance may have answered turns of a conversation held here;
+     * one index-only lookup tells, and only then is the conversation read back. A conversation that
+     * lost a write is read back regardless.
+     */
+    private void refresh(String conversationId, Conversation conversation) {
+        int lastSeq;
+        try {
+            lastSeq = store.lastSeq(conversationId);
+        } catch (DataAccessException e) {
+            return;
+        }
+        conversation.lock.lock();
+        try {
+            if (conversation.stale || lastSeq >= conversation.nextSeq) {
+                conversation.replace(store.load(conversationId), maxMessages, maxTokens);
+                conversation.stale = false;
+            }
+        } catch (DataAccessException e) {
+            // Carry on with the copy held here
+        } finally {
+            conversation.lock.unlock();
+        }
+    }
+
+    /**
+     * Rough token estimate (~4 characters per token) used to bound the prompt window.
+     */
+    static int estimateTokens(Message message) {
+        String text = message.getText();
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    private static final class Conversation {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<Message> messages = new ArrayDeque<>();
+        private final List<AnswerScore> scores = new ArrayList<>();
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile boolean stale;
+        private int tokens;
+        private int nextSeq;
+
+        void append(Message message) {
+            messages.addLast(message);
+            tokens += estimateTokens(message);
+        }
+
+        void replace(List<InterviewMessageStore.StoredMessage> stored, int maxMessages, int maxTokens) {
+            messages.clear();
+            tokens = 0;
+            for (InterviewMessageStore.StoredMessage message : stored) {
+                append(message.message());
+                nextSeq = Math.max(nextSeq, message.seq() + 1);
+            }
+            trim(maxMessages, maxTokens);
+        }
+
+        void trim(int maxMessages, int maxTokens) {
+            Iterator<Message> it = messages.iterator();
+            while ((messages.size() > maxMessages || tokens > maxTokens) && it.hasNext()) {
+                Message message = it.next();
+                // The system prompt carries the interview setup; keep it as long as anything is kept.
+                if (message.getMessageType() == MessageType.SYSTEM && messages.size() > 1) {
+                    continue;
+                }
+                it.remove();
+                tokens -= estimateTokens(message);
+            }
+        }
+    }
+}
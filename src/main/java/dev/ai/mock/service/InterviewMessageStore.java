@@ -0,0 +1,278 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Durable store behind {@link InterviewChatMemory}. Appends are queued and written by a single background
+ * thread in batched inserts, so no interview turn waits on a database write; a conversation is read back
+ * with one query on its primary key, which lets any instance pick up an interview another one started.
+ * A row that already exists is not overwritten: the node whose turn lost the race is told through
+ * {@link #onConflict} and reloads the conversation.
+ */
+@Component
+public class InterviewMessageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InterviewMessageStore.class);
+
+    private static final String INSERT = "INSERT INTO interview_messages (conversation_id, seq, message_type, content, created_at) "
+            + "VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT = "SELECT seq, message_type, content, created_at FROM interview_messages "
+            + "WHERE conversation_id = ? ORDER BY seq";
+    private static final String SELECT_LAST_SEQ = "SELECT MAX(seq) FROM interview_messages WHERE conversation_id = ?";
+    private static final String DELETE = "DELETE FROM interview_messages WHERE conversation_id = ?";
+    private static final String PURGE = "DELETE FROM interview_messages WHERE created_at < ?";
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** A stored message with its position in the conversation. */
+    public record StoredMessage(int seq, Message message, Instant createdAt) {}
+
+    private sealed interface Op permits Insert, Delete {}
+
+    private record Insert(String conversationId, int seq, String type, String content, Instant createdAt) implements Op {}
+
+    private record Delete(String conversationId) implements Op {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final BlockingQueue<Op> pending;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private final List<Consumer<String>> conflictListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter conflicts;
+
+    public InterviewMessageStore(JdbcTemplate jdbcTemplate,
+                                 @Value("${interview.memory.store.enabled:true}") boolean enabled,
+                                 @Value("${interview.memory.store.batch-size:100}") int batchSize,
+                                 @Value("${interview.memory.store.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${interview.memory.store.retention:24h}") Duration retention,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("interview.memory.store.messages").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("interview.memory.store.messages").tag("result", "dropped").register(meterRegistry);
+        this.conflicts = Counter.builder("interview.memory.store.messages").tag("result", "conflict").register(meterRegistry);
+        Gauge.builder("interview.memory.store.pending", pending, BlockingQueue::size).register(meterRegistry);
+        this.flusher = new Thread(this::flushLoop, "chat-memory-flush");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            this.flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a message for writing. Never blocks: if the queue is full (database down or far behind)
+     * the message is dropped and counted, and the conversation carries on from memory.
+     */
+    public void append(String conversationId, int seq, Message message) {
+        if (!enabled || message.getText() == null) {
+            return;
+        }
+        MessageType type = message.getMessageType();
+        if (type != MessageType.USER && type != MessageType.ASSISTANT && type != MessageType.SYSTEM) {
+            return;
+        }
+        if (!pending.offer(new Insert(conversationId, seq, type.name(), message.getText(), Instant.now()))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Queue removal of a conversation; ordered after any of its messages still waiting to be written.
+     */
+    public void delete(String conversationId) {
+        if (enabled && !pending.offer(new Delete(conversationId))) {
+            log.warn("Chat memory write queue full; conversation {} left for the retention purge", conversationId);
+        }
+    }
+
+    /**
+     * Called, on the writer thread, with the id of a conversation whose message was not written because
+     * another node had already stored one at the same position.
+     */
+    public void onConflict(Consumer<String> listener) {
+        conflictListeners.add(listener);
+    }
+
+    /**
+     * All stored messages of a conversation, in order.
+     */
+    public List<StoredMessage> load(String conversationId) {
+        if (!enabled) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT, (rs, row) -> new StoredMessage(
+                rs.getInt("seq"),
+                message(rs.getString("message_type"), rs.getString("content")),
+                rs.getTimestamp("created_at").toInstant()), conversationId);
+    }
+
+    /**
+     * Highest stored sequence number of a conversation, or -1; an index-only lookup used to tell whether
+     * another instance has moved the conversation on.
+     */
+    public int lastSeq(String conversationId) {
+        if (!enabled) {
+            return -1;
+        }
+        Integer seq = jdbcTemplate.queryForObject(SELECT_LAST_SEQ, Integer.class, conversationId);
+        return seq == null ? -1 : seq;
+    }
+
+    @Scheduled(fixedDelayString = "${interview.memory.store.purge-interval:3600000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(PURGE, Timestamp.from(Instant.now().minus(retention)));
+        } catch (DataAccessException e) {
+            log.warn("Could not purge expired interview messages: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        // The loop notices within one poll; interrupt only a flusher stuck behind a hung write
+        flusher.join(2_000);
+        flusher.interrupt();
+        List<Op> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    private void flushLoop() {
+        List<Op> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Op first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever queued up while the previous batch was being written goes out together
+                batch.add(first);
+                pending.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Op> ops) {
+        List<Object[]> inserts = new ArrayList<>(ops.size());
+        for (Op op : ops) {
+            if (op instanceof Insert insert) {
+                inserts.add(new Object[]{insert.conversationId(), insert.seq(), insert.type(), insert.content(),
+                        Timestamp.from(insert.createdAt())});
+            } else if (op instanceof Delete delete) {
+                insert(inserts);
+                inserts.clear();
+                execute(() -> jdbcTemplate.update(DELETE, delete.conversationId()), 0);
+            }
+        }
+        insert(inserts);
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[] counts = execute(() -> jdbcTemplate.batchUpdate(INSERT, rows), rows.size());
+        if (counts == null) {
+            return;
+        }
+        // 0 is a row ON CONFLICT skipped; drivers that rewrite batches report SUCCESS_NO_INFO instead of 1
+        int skipped = 0;
+        Set<String> conflicted = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                skipped++;
+                conflicted.add((String) rows.get(i)[0]);
+            }
+        }
+        written.increment(rows.size() - skipped);
+        conflicts.increment(skipped);
+        for (String conversationId : conflicted) {
+            log.debug("Conversation {} was moved on by another node; its copy here is reloaded", conversationId);
+            conflictListeners.forEach(listener -> listener.accept(conversationId));
+        }
+    }
+
+    /**
+     * @return The statement's result, or null once it has failed {@link #MAX_ATTEMPTS} times
+     */
+    private <T> T execute(Supplier<T> statement, int rows) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return statement.get();
+            } catch (DataAccessException e) {
+                if (attempt == MAX_ATTEMPTS || !running) {
+                    log.warn("Dropping chat memory write of {} messages after {} attempts: {}", rows, attempt, e.getMessage());
+                    dropped.increment(rows);
+                    return null;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static Message message(String type, String content) {
+        return switch (MessageType.valueOf(type)) {
+            case SYSTEM -> new SystemMessage(content);
+            case ASSISTANT -> new AssistantMessage(content);
+            default -> new UserMessage(content);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package dev.ai.mock.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The model could not answer within the call's deadline: the provider kept rate-limiting or failing,
+ * or no concurrency permit freed up in time. Callers should retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LlmUnavailableException extends RuntimeException {
+
+    public LlmUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,324 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Speculatively generates the opening interview question while the candidate is still choosing a role and
+ * company, so starting the interview does not wait on the model. There is at most one prefetch per user,
+ * held in a bounded LRU map for a short TTL and used at most once. A prefetch that is never used, is
+ * superseded by another choice, or was made from a resume that has since changed is cancelled (interrupting
+ * its model call) and counted as wasted. A user who keeps changing their choice gets a few supersedes per
+ * window; beyond that no new call is started and the interview start asks the model itself.
+ */
+@Service
+public class OpeningQuestionPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningQuestionPrefetcher.class);
+    private static final List<String> WASTE_REASONS =
+            List.of("evicted", "expired", "superseded", "mismatch", "invalidated", "failed");
+
+    /** The opening exchange: the rendered user prompt and the question the model asked in reply. */
+    public record Opening(String prompt, String question) {}
+
+    private record Key(String jobRole, String company) {
+        static Key of(String jobRole, String company) {
+            return new Key(normalize(jobRole), normalize(company));
+        }
+    }
+
+    private static final class Prefetch {
+        private final Key key;
+        private final Callable<Opening> generator;
+        private final long createdAt = System.currentTimeMillis();
+        /** Start of the user's supersede window and the supersedes counted in it, carried from prefetch to prefetch. */
+        private final long windowStart;
+        private final int supersedes;
+        private final CompletableFuture<Opening> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+
+        Prefetch(Key key, Callable<Opening> generator, long windowStart, int supersedes) {
+            this.key = key;
+            this.generator = generator;
+            this.windowStart = windowStart;
+            this.supersedes = supersedes;
+        }
+
+        void cancel() {
+            result.cancel(false);
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxSupersedes;
+    private final long supersedeWindowMillis;
+    private final SimpleAsyncTaskExecutor executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Prefetch> prefetches;
+
+    private final Counter started;
+    private final Counter hits;
+    private final Counter partialHits;
+    private final Counter misses;
+    private final Counter throttled;
+    private final Map<String, Counter> wasted = new HashMap<>();
+
+    public OpeningQuestionPrefetcher(@Value("${interview.prefetch.enabled:true}") boolean enabled,
+                                     @Value("${interview.prefetch.ttl:5m}") Duration ttl,
+                                     @Value("${interview.prefetch.max-entries:1000}") int maxEntries,
+                                     @Value("${interview.prefetch.max-in-flight:16}") int maxInFlight,
+                                     @Value("${interview.prefetch.max-supersedes:3}") int maxSupersedes,
+                                     @Value("${interview.prefetch.supersede-window:1m}") Duration supersedeWindow,
+                                     Environment environment,
+                                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.maxSupersedes = maxSupersedes;
+        this.supersedeWindowMillis = supersedeWindow.toMillis();
+        this.prefetches = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Prefetch> eldest) {
+                if (size() > maxEntries) {
+                    discard(eldest.getValue(), "evicted");
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        // Speculative work must not crowd out real interviews: beyond maxInFlight, prefetches are skipped
+        this.executor = new SimpleAsyncTaskExecutor("interview-prefetch-");
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        this.executor.setConcurrencyLimit(maxInFlight);
+        this.executor.setRejectTasksWhenLimitReached(true);
+        this.executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+
+        this.started = Counter.builder("interview.prefetch.started").register(meterRegistry);
+        this.hits = Counter.builder("interview.prefetch.lookups").tag("result", "hit").register(meterRegistry);
+        this.partialHits = Counter.builder("interview.prefetch.lookups").tag("result", "partial").register(meterRegistry);
+        this.misses = Counter.builder("interview.prefetch.lookups").tag("result", "miss").register(meterRegistry);
+        this.throttled = Counter.builder("interview.prefetch.throttled")
+                .description("Choices not prefetched because the user superseded too many in the window")
+                .register(meterRegistry);
+        for (String reason : WASTE_REASONS) {
+            wasted.put(reason, Counter.builder("interview.prefetch.wasted").tag("reason", reason).register(meterRegistry));
+        }
+        Gauge.builder("interview.prefetch.pending", this, OpeningQuestionPrefetcher::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start generating the opening for this role and company unless it is already prefetched.
+     * A prefetch of the same user for another choice is cancelled, unless the user has already superseded
+     * {@code max-supersedes} choices in the window; then the previous prefetch stays and nothing is started.
+     * @param generator Builds the prompt from the user's current resume and calls the model; run in the background
+     * @return false if prefetching is off, throttled for this user or already at its in-flight limit
+     */
+    public boolean prefetch(Long userId, String jobRole, String company, Callable<Opening> generator) {
+        if (!enabled) {
+            return false;
+        }
+        Key key = Key.of(jobRole, company);
+        long now = System.currentTimeMillis();
+        Prefetch prefetch;
+        Prefetch previous;
+        lock.lock();
+        try {
+            previous = prefetches.get(userId);
+            if (previous == null || previous.key.equals(key)) {
+                if (previous != null && !expired(previous)) {
+                    return true;
+                }
+                prefetch = new Prefetch(key, generator, now, 0);
+            } else if (previous.windowStart < now - supersedeWindowMillis) {
+                prefetch = new Prefetch(key, generator, now, 1);
+            } else if (previous.supersedes < maxSupersedes) {
+                prefetch = new Prefetch(key, generator, previous.windowStart, previous.supersedes + 1);
+            } else {
+                throttled.increment();
+                return false;
+            }
+            prefetches.put(userId, prefetch);
+        } finally {
+            lock.unlock();
+        }
+        if (previous != null) {
+            discard(previous, previous.key.equals(key) ? "expired" : "superseded");
+        }
+        return launch(userId, prefetch);
+    }
+
+    /**
+     * Claim the prefetched opening for this role and company, finished or still in flight.
+     * The prefetch is removed either way; one made for another choice is cancelled.
+     */
+    public Optional<CompletableFuture<Opening>> take(Long userId, String jobRole, String company) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Prefetch prefetch;
+        lock.lock();
+        try {
+            prefetch = prefetches.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+        if (prefetch == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (!prefetch.key.equals(Key.of(jobRole, company))) {
+            discard(prefetch, "mismatch");
+            misses.increment();
+            return Optional.empty();
+        }
+        if (expired(prefetch)) {
+            discard(prefetch, "expired");
+            misses.increment();
+            return Optional.empty();
+        }
+        (prefetch.result.isDone() ? hits : partialHits).increment();
+        return Optional.of(prefetch.result);
+    }
+
+    /**
+     * The user's resume changed: the pending prefetch was made from the old one, so start it again.
+     */
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        Prefetch stale;
+        Prefetch fresh = null;
+        lock.lock();
+        try {
+            stale = prefetches.get(userId);
+            if (stale != null) {
+                fresh = new Prefetch(stale.key, stale.generator, stale.windowStart, stale.supersedes);
+                prefetches.put(userId, fresh);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (stale != null) {
+            discard(stale, "invalidated");
+            launch(userId, fresh);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${interview.prefetch.eviction-interval:60000}")
+    public void evictExpired() {
+        List<Prefetch> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Prefetch> it = prefetches.values().iterator();
+            while (it.hasNext()) {
+                Prefetch prefetch = it.next();
+                if (expired(prefetch)) {
+                    it.remove();
+                    expired.add(prefetch);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(prefetch -> discard(prefetch, "expired"));
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return prefetches.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean launch(Long userId, Prefetch prefetch) {
+        try {
+            prefetch.task = executor.submit(() -> run(userId, prefetch));
+            started.increment();
+            return true;
+        } catch (TaskRejectedException e) {
+            remove(userId, prefetch);
+            prefetch.result.cancel(false);
+            return false;
+        }
+    }
+
+    private void run(Long userId, Prefetch prefetch) {
+        if (prefetch.result.isDone()) {
+            return;
+        }
+        try {
+            prefetch.result.complete(prefetch.generator.call());
+        } catch (Exception e) {
+            prefetch.result.completeExceptionally(e);
+            // Nobody claimed it yet: drop it so the start makes its own call instead of joining a failure
+            if (remove(userId, prefetch)) {
+                wasted("failed");
+                log.debug("Prefetch of the opening question for user {} failed: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private boolean remove(Long userId, Prefetch prefetch) {
+        lock.lock();
+        try {
+            return prefetches.remove(userId, prefetch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(Prefetch prefetch, String reason) {
+        prefetch.cancel();
+        wasted(reason);
+    }
+
+    private void wasted(String reason) {
+        wasted.get(reason).increment();
+    }
+
+    private boolean expired(Prefetch prefetch) {
+        return prefetch.createdAt < System.currentTimeMillis() - ttlMillis;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
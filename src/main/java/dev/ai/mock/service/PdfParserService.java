@@ -1,19 +1,54 @@
 package dev.ai.mock.service;
 
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class PdfParserService {
 
+    /**
+     * Extraction modes: {@code in-memory} loads the whole document into heap and strips it in one pass;
+     * {@code streaming} spools to a scratch file with a capped main-memory buffer.
+     */
+    public static final String MODE_STREAMING = "streaming";
+
+    private final boolean streaming;
+    private final long maxMainMemoryBytes;
+    private final ObservationRegistry observationRegistry;
+    private final PdfTriageService pdfTriageService;
+
+    public PdfParserService(ObservationRegistry observationRegistry,
+                            PdfTriageService pdfTriageService,
+                            @Value("${pdf.extraction.mode:streaming}") String mode,
+                            @Value("${pdf.extraction.max-main-memory:8MB}") DataSize maxMainMemory) {
+        this.observationRegistry = observationRegistry;
+        this.pdfTriageService = pdfTriageService;
+        this.streaming = MODE_STREAMING.equalsIgnoreCase(mode);
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+    }
+
     /**
      * Parse PDF file and extract text content
      * @param file The PDF file to parse
@@ -21,9 +56,15 @@ public class PdfParserService {
      * @throws IOException if there's an error reading the PDF
      */
     public List<String> parsePdfToWords(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
+        if (streaming) {
+            List<String> words = new ArrayList<>();
+            try (InputStream in = file.getInputStream()) {
+                streamWords(in, words::add);
+            }
+            return words;
+        }
+        try (PDDocument document = load(() -> PDDocument.load(file.getInputStream()))) {
+            String text = extract(() -> new PDFTextStripper().getText(document));
 
             // Split text into words, remove empty strings and normalize
             return Arrays.stream(text.split("\\s+"))
@@ -41,9 +82,60 @@ public class PdfParserService {
      * @throws IOException if there's an error reading the PDF
      */
     public String parsePdfToText(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        if (streaming) {
+            Path scratch = Files.createTempFile("resume-", ".pdf");
+            try {
+                try (InputStream in = file.getInputStream()) {
+                    Files.copy(in, scratch, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return parsePdfToText(scratch);
+            } finally {
+                Files.deleteIfExists(scratch);
+            }
+        }
+        try (PDDocument document = load(() -> PDDocument.load(file.getInputStream()))) {
+            return extract(() -> new PDFTextStripper().getText(document));
+        }
+    }
+
+    /**
+     * Parse a PDF on disk and return raw text content. The document is loaded once, through a scratch
+     * file with a capped main-memory buffer, triaged, and stripped in a single pass.
+     * @param pdf Path of the PDF to parse; callers run {@link PdfTriageService#checkSignature} first
+     * @return Raw text content from the PDF
+     * @throws PdfRejectedException if the document cannot be loaded or triage rejects it
+     * @throws IOException if there's an error reading the PDF
+     */
+    public String parsePdfToText(Path pdf) throws IOException {
+        PDDocument loaded;
+        try {
+            loaded = load(() -> PDDocument.load(pdf.toFile(), memoryUsage()));
+        } catch (IOException e) {
+            throw new PdfRejectedException(pdfTriageService.loadFailure(e));
+        }
+        try (PDDocument document = loaded) {
+            Optional<PdfTriageService.Rejection> rejection = pdfTriageService.inspect(document);
+            if (rejection.isPresent()) {
+                throw new PdfRejectedException(rejection.get());
+            }
+            return extract(() -> new PDFTextStripper().getText(document));
+        }
+    }
+
+    /**
+     * Stream lower-cased words from a PDF to {@code sink} as the text stripper produces them,
+     * without materializing the document text.
+     * @param in PDF content
+     * @param sink Receives each word in document order
+     * @throws IOException if there's an error reading the PDF
+     */
+    public void streamWords(InputStream in, Consumer<String> sink) throws IOException {
+        try (PDDocument document = load(() -> PDDocument.load(in, memoryUsage()));
+             WordWriter writer = new WordWriter(sink)) {
+            extract(() -> {
+                new PDFTextStripper().writeText(document, writer);
+                return null;
+            });
         }
     }
 
@@ -59,4 +151,72 @@ public class PdfParserService {
                 file.getOriginalFilename() != null &&
                 file.getOriginalFilename().toLowerCase().endsWith(".pdf");
     }
-}
\ No newline at end of file
+
+    private PDDocument load(Observation.CheckedCallable<PDDocument, IOException> loader) throws IOException {
+        return Observation.createNotStarted("resume.pdf.load", observationRegistry)
+                .lowCardinalityKeyValue("mode", streaming ? MODE_STREAMING : "in-memory")
+                .observeChecked(loader);
+    }
+
+    private <T> T extract(Observation.CheckedCallable<T, IOException> extractor) throws IOException {
+        return Observation.createNotStarted("resume.pdf.extract", observationRegistry)
+                .lowCardinalityKeyValue("mode", streaming ? MODE_STREAMING : "in-memory")
+                .observeChecked(extractor);
+    }
+
+    private MemoryUsageSetting memoryUsage() {
+        return MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+    }
+
+    /**
+     * Writer that splits stripper output on whitespace and hands each lower-cased word to a sink.
+     */
+    static final class WordWriter extends Writer {
+        private final Consumer<String> sink;
+        private final StringBuilder word = new StringBuilder(32);
+
+        WordWriter(Consumer<String> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (Character.isWhitespace(c)) {
+                    emit();
+                } else {
+                    word.append(c);
+                }
+            }
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = str.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    emit();
+                } else {
+                    word.append(c);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            emit();
+        }
+
+        private void emit() {
+            if (!word.isEmpty()) {
+                sink.accept(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+        }
+    }
+}
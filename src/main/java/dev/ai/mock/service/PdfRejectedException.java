@@ -0,0 +1,22 @@
+package dev.ai.mock.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Triage rejected the uploaded PDF: it cannot yield useful resume text.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PdfRejectedException extends RuntimeException {
+
+    private final PdfTriageService.Rejection rejection;
+
+    public PdfRejectedException(PdfTriageService.Rejection rejection) {
+        super(rejection.description());
+        this.rejection = rejection;
+    }
+
+    public PdfTriageService.Rejection getRejection() {
+        return rejection;
+    }
+}
@@ -0,0 +1,178 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cheap checks that reject uploads which cannot yield useful resume text before a full extraction
+ * or an LLM call is paid for: a byte-level signature check before parsing, and document-level
+ * checks on the document the parser loads.
+ */
+@Service
+public class PdfTriageService {
+
+    public enum Rejection {
+        NOT_PDF("File is not a PDF"),
+        TRUNCATED("PDF is truncated or corrupt"),
+        ENCRYPTED("PDF is encrypted"),
+        TOO_MANY_PAGES("PDF has too many pages for a resume"),
+        IMAGE_ONLY("PDF contains only scanned images and no text"),
+        LOW_TEXT_DENSITY("PDF contains too little text");
+
+        private final String description;
+
+        Rejection(String description) {
+            this.description = description;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+
+    private static final int PROBE_BYTES = 1024;
+    private static final byte[] HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STARTXREF = "startxref".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxPages;
+    private final int samplePages;
+    private final int minCharsPerPage;
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+
+    public PdfTriageService(@Value("${pdf.triage.max-pages:10}") int maxPages,
+                            @Value("${pdf.triage.sample-pages:2}") int samplePages,
+                            @Value("${pdf.triage.min-chars-per-page:100}") int minCharsPerPage,
+                            MeterRegistry meterRegistry) {
+        this.maxPages = maxPages;
+        this.samplePages = samplePages;
+        this.minCharsPerPage = minCharsPerPage;
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, Counter.builder("pdf.triage.rejections")
+                    .tag("reason", rejection.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Byte-level check of the first and last KB: a {@code %PDF-} header and a
+     * {@code startxref}/{@code %%EOF} trailer. Runs in microseconds without parsing.
+     * @param pdf Path of the uploaded file
+     * @return The rejection reason, or empty if the file looks like a complete PDF
+     */
+    public Optional<Rejection> checkSignature(Path pdf) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(pdf.toFile(), "r")) {
+            long length = file.length();
+            byte[] head = new byte[(int) Math.min(PROBE_BYTES, length)];
+            file.readFully(head);
+            if (indexOf(head, HEADER) < 0) {
+                return reject(Rejection.NOT_PDF);
+            }
+            byte[] tail = new byte[(int) Math.min(PROBE_BYTES, length)];
+            file.seek(length - tail.length);
+            file.readFully(tail);
+            if (indexOf(tail, EOF_MARKER) < 0 || indexOf(tail, STARTXREF) < 0) {
+                return reject(Rejection.TRUNCATED);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Document-level triage on a document the parser has already loaded: text-extraction permission,
+     * page count, and text density and images over a small sample of pages.
+     * @param document The loaded upload
+     * @return The rejection reason, or empty if the document is worth extracting
+     */
+    public Optional<Rejection> inspect(PDDocument document) throws IOException {
+        // An owner password alone only restricts editing; reject only if text may not be extracted
+        if (document.isEncrypted() && !document.getCurrentAccessPermission().canExtractContent()) {
+            return reject(Rejection.ENCRYPTED);
+        }
+        int pages = document.getNumberOfPages();
+        if (pages > maxPages) {
+            return reject(Rejection.TOO_MANY_PAGES);
+        }
+        int sampled = Math.min(pages, samplePages);
+        if (sampled == 0) {
+            return reject(Rejection.LOW_TEXT_DENSITY);
+        }
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(1);
+        stripper.setEndPage(sampled);
+        int chars = countNonWhitespace(stripper.getText(document));
+        if (chars < minCharsPerPage * sampled) {
+            boolean hasImages = false;
+            for (int i = 0; i < sampled && !hasImages; i++) {
+                hasImages = hasImages(document.getPage(i));
+            }
+            return reject(chars == 0 && hasImages ? Rejection.IMAGE_ONLY : Rejection.LOW_TEXT_DENSITY);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The rejection for a document PDFBox could not load: a user password means ENCRYPTED,
+     * anything else a damaged file.
+     */
+    public Rejection loadFailure(IOException e) {
+        return reject(e instanceof InvalidPasswordException ? Rejection.ENCRYPTED : Rejection.TRUNCATED).get();
+    }
+
+    private Optional<Rejection> reject(Rejection rejection) {
+        rejections.get(rejection).increment();
+        return Optional.of(rejection);
+    }
+
+    private static boolean hasImages(PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        if (resources == null) {
+            return false;
+        }
+        for (COSName name : resources.getXObjectNames()) {
+            if (resources.isImageXObject(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countNonWhitespace(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ai.mock.service;
+
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Counts prompt tokens locally with the bundled WordPiece tokenizer. This approximates, not
+ * reproduces, the hosted model's tokenizer; it is used to keep prompts within a budget.
+ * Falls back to a ~4 characters per token estimate if the tokenizer cannot be loaded.
+ */
+@Component
+public class PromptTokenCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptTokenCounter.class);
+
+    private final HuggingFaceTokenizer tokenizer;
+
+    public PromptTokenCounter(ResourceLoader resourceLoader,
+                              @Value("${interview.prompt.tokenizer-uri:classpath:/onnx/all-MiniLM-L6-v2/tokenizer.json}") String tokenizerUri) {
+        HuggingFaceTokenizer loaded = null;
+        try (InputStream in = resourceLoader.getResource(tokenizerUri).getInputStream()) {
+            loaded = HuggingFaceTokenizer.newInstance(in, Map.of("truncation", "false", "padding", "false"));
+        } catch (Exception | UnsatisfiedLinkError e) {
+            log.warn("Prompt tokenizer unavailable, estimating tokens from length: {}", e.getMessage());
+        }
+        this.tokenizer = loaded;
+    }
+
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        if (tokenizer == null) {
+            return (text.length() + 3) / 4;
+        }
+        return tokenizer.encode(text, false, false).getIds().length;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (tokenizer != null) {
+            tokenizer.close();
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ChatModel} decorator that every {@code ChatClient} in the app goes through. Per call it:
+ * <ul>
+ *     <li>joins an identical prompt already in flight instead of sending it again (single-flight);</li>
+ *     <li>waits for a permit from the model's {@link AdaptiveConcurrencyLimiter};</li>
+ *     <li>retries transient failures (429, 5xx, I/O) with full-jitter backoff, but never past the call's deadline;</li>
+ *     <li>optionally hedges: if an attempt is still running after {@code hedgeDelay}, a second one races it.</li>
+ * </ul>
+ * Streaming calls get the limiter and deadline for the first token only; a stream that has started
+ * emitting tokens cannot be replayed, so it is not retried or hedged.
+ * When the deadline is spent the call fails with {@link LlmUnavailableException} (503).
+ * Time spent waiting for a permit is observed as {@code llm.queue}, and a stream's time to first
+ * token as {@code llm.first_token}; the provider call itself is Spring AI's {@code gen_ai.client.operation}.
+ */
+public class ResilientChatModel implements ChatModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientChatModel.class);
+
+    public record Settings(Duration timeout, int maxAttempts, Duration backoffBase, Duration backoffMax,
+                           int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                           boolean coalesce, boolean hedge, Duration hedgeDelay) {
+
+        public static Settings defaults() {
+            return new Settings(Duration.ofSeconds(60), 3, Duration.ofMillis(250), Duration.ofSeconds(4),
+                    16, 1, 256, 0.5, true, false, Duration.ofSeconds(10));
+        }
+    }
+
+    private final ChatModel delegate;
+    private final AsyncTaskExecutor executor;
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ChatResponse>> inFlight = new ConcurrentHashMap<>();
+    // Meters are looked up on every call; building and registering them each time costs a registry lookup and garbage
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> firstTokenTimers = new ConcurrentHashMap<>();
+
+    public ResilientChatModel(ChatModel delegate, AsyncTaskExecutor executor, Settings settings,
+                              MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String model = modelName(prompt);
+        long deadline = System.nanoTime() + settings.timeout().toNanos();
+        if (!settings.coalesce()) {
+            return callWithRetries(model, prompt, deadline);
+        }
+
+        String key = model + '\u0000' + promptKey(prompt);
+        CompletableFuture<ChatResponse> mine = new CompletableFuture<>();
+        CompletableFuture<ChatResponse> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            count(model, "coalesced");
+            return await(leader, deadline);
+        }
+        try {
+            ChatResponse response = callWithRetries(model, prompt, deadline);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String model = modelName(prompt);
+        AdaptiveConcurrencyLimiter limiter = limiter(model);
+        long deadline = System.nanoTime() + settings.timeout().toNanos();
+        return Flux.defer(() -> {
+            StreamPermit permit = new StreamPermit(limiter);
+            AtomicBoolean errorOverloaded = new AtomicBoolean();
+            return Mono.fromCallable(() -> permit.acquired(acquire(model, limiter, deadline)))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(acquired -> {
+                        if (!acquired) {
+                            count(model, "rejected");
+                            return Flux.error(new LlmUnavailableException("No capacity for model " + model, null));
+                        }
+                        AtomicBoolean firstToken = new AtomicBoolean();
+                        long started = System.nanoTime();
+                        Duration firstTokenTimeout = Duration.ofNanos(Math.max(0, deadline - started));
+                        return delegate.stream(prompt)
+                                .timeout(Mono.delay(firstTokenTimeout), response -> Mono.never())
+                                .doOnNext(response -> {
+                                    if (firstToken.compareAndSet(false, true)) {
+                                        firstTokenTimer(model).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                                    }
+                                });
+                    })
+                    .doOnError(e -> errorOverloaded.set(isTransient(e)))
+                    // Outside flatMapMany, so the permit also comes back on a cancel before the model stream was
+                    // subscribed, or when starting it throws
+                    .doFinally(signal -> {
+                        if (signal == SignalType.ON_COMPLETE) {
+                            if (permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS)) {
+                                count(model, "success");
+                            }
+                        } else if (signal == SignalType.ON_ERROR && errorOverloaded.get()) {
+                            if (permit.release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED)) {
+                                count(model, "transient_error");
+                            }
+                        } else if (permit.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED)) {
+                            count(model, signal == SignalType.ON_ERROR ? "failed" : "cancelled");
+                        }
+                    });
+        });
+    }
+
+    /**
+     * The permit of one stream subscription. A cancel can land while the permit is still being acquired,
+     * so whichever of {@link #acquired} and {@link #release} comes second hands it back.
+     */
+    private static final class StreamPermit {
+
+        private static final int PENDING = 0;
+        private static final int HELD = 1;
+        private static final int DONE = 2;
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        StreamPermit(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        boolean acquired(boolean acquired) {
+            if (acquired && !state.compareAndSet(PENDING, HELD)) {
+                limiter.release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+            }
+            return acquired;
+        }
+
+        /**
+         * @return true if a held permit was given back
+         */
+        boolean release(AdaptiveConcurrencyLimiter.Outcome outcome) {
+            if (state.getAndSet(DONE) == HELD) {
+                limiter.release(outcome);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private ChatResponse callWithRetries(String model, Prompt prompt, long deadline) {
+        RuntimeException last = null;
+        for (int attempt = 0; attempt < settings.maxAttempts(); attempt++) {
+            if (attempt > 0) {
+                long backoff = backoffNanos(attempt);
+                if (System.nanoTime() + backoff >= deadline) {
+                    break;
+                }
+                count(model, "retried");
+                log.debug("Retrying {} call after {} ms: {}", model, TimeUnit.NANOSECONDS.toMillis(backoff), last.getMessage());
+                sleep(backoff);
+            }
+            try {
+                ChatResponse response = attempt(model, prompt, deadline);
+                count(model, "success");
+                return response;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    count(model, "failed");
+                    throw e;
+                }
+                count(model, e instanceof DeadlineExceededException ? "timeout" : "transient_error");
+                last = e;
+            }
+        }
+        count(model, "exhausted");
+        throw new LlmUnavailableException("Model " + model + " did not answer before the deadline", last);
+    }
+
+    private ChatResponse attempt(String model, Prompt prompt, long deadline) {
+        AdaptiveConcurrencyLimiter limiter = limiter(model);
+        try {
+            if (!acquire(model, limiter, deadline)) {
+                count(model, "rejected");
+                throw new DeadlineExceededException("No concurrency permit for " + model + " before the deadline");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a permit");
+        }
+
+        List<Call> calls = new ArrayList<>(2);
+        calls.add(launch(limiter, prompt));
+        try {
+            if (settings.hedge()) {
+                long hedgeAt = Math.min(deadline, System.nanoTime() + settings.hedgeDelay().toNanos());
+                if (!awaitDone(calls.get(0).result, hedgeAt) && System.nanoTime() < deadline && limiter.tryAcquire()) {
+                    count(model, "hedged");
+                    calls.add(launch(limiter, prompt));
+                }
+            }
+            Call winner = firstSuccess(calls, deadline);
+            if (winner != calls.get(0)) {
+                count(model, "hedge_won");
+            }
+            return winner.result.join();
+        } finally {
+            for (Call call : calls) {
+                call.cancel(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+            }
+        }
+    }
+
+    private boolean acquire(String model, AdaptiveConcurrencyLimiter limiter, long deadline) throws InterruptedException {
+        Observation queue = Observation.createNotStarted("llm.queue", observationRegistry)
+                .lowCardinalityKeyValue("model", model)
+                .start();
+        boolean acquired = false;
+        try {
+            acquired = limiter.acquire(deadline);
+            return acquired;
+        } finally {
+            queue.lowCardinalityKeyValue("acquired", String.valueOf(acquired)).stop();
+        }
+    }
+
+    /**
+     * @return the first call to succeed; if all fail, rethrows the last failure
+     */
+    private Call firstSuccess(List<Call> calls, long deadline) {
+        List<Call> pending = new ArrayList<>(calls);
+        RuntimeException failure = null;
+        while (!pending.isEmpty()) {
+            CompletableFuture<?> any = CompletableFuture.anyOf(pending.stream().map(Call::result).toArray(CompletableFuture[]::new));
+            if (!awaitDone(any, deadline)) {
+                pending.forEach(call -> call.cancel(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED));
+                throw new DeadlineExceededException("Model call exceeded its deadline");
+            }
+            for (Call call : new ArrayList<>(pending)) {
+                if (!call.result.isDone()) {
+                    continue;
+                }
+                if (!call.result.isCompletedExceptionally()) {
+                    return call;
+                }
+                pending.remove(call);
+                failure = unwrap(call.result);
+            }
+        }
+        throw failure;
+    }
+
+    private Call launch(AdaptiveConcurrencyLimiter limiter, Prompt prompt) {
+        CompletableFuture<ChatResponse> result = new CompletableFuture<>();
+        AtomicBoolean released = new AtomicBoolean();
+        Future<?> task = executor.submit(() -> {
+            AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+            try {
+                result.complete(delegate.call(prompt));
+            } catch (Throwable t) {
+                outcome = isTransient(t) ? AdaptiveConcurrencyLimiter.Outcome.OVERLOADED : AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+                result.completeExceptionally(t);
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release(outcome);
+                }
+            }
+        });
+        return new Call(result, task, limiter, released);
+    }
+
+    private record Call(CompletableFuture<ChatResponse> result, Future<?> task, AdaptiveConcurrencyLimiter limiter,
+                        AtomicBoolean released) {
+
+        void cancel(AdaptiveConcurrencyLimiter.Outcome outcome) {
+            if (result.isDone()) {
+                return;
+            }
+            task.cancel(true);
+            result.cancel(false);
+            if (released.compareAndSet(false, true)) {
+                limiter.release(outcome);
+            }
+        }
+    }
+
+    private ChatResponse await(CompletableFuture<ChatResponse> leader, long deadline) {
+        if (!awaitDone(leader, deadline)) {
+            throw new LlmUnavailableException("Coalesced model call exceeded its deadline", null);
+        }
+        if (leader.isCompletedExceptionally()) {
+            throw unwrap(leader);
+        }
+        return leader.join();
+    }
+
+    /**
+     * @return true if {@code future} completed (normally or not) before {@code deadline}
+     */
+    private static boolean awaitDone(CompletableFuture<?> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return future.isDone();
+        } catch (ExecutionException | CancellationException e) {
+            // completed exceptionally; the caller inspects the future
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for the model");
+        }
+        return true;
+    }
+
+    private static RuntimeException unwrap(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return new IllegalStateException("Future completed normally");
+        } catch (CompletionException e) {
+            return e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    private static boolean isTransient(Throwable t) {
+        return t instanceof TransientAiException
+                || t instanceof ResourceAccessException
+                || t instanceof WebClientRequestException
+                || t instanceof DeadlineExceededException
+                || t instanceof TimeoutException;
+    }
+
+    private long backoffNanos(int retry) {
+        long cap = Math.min(settings.backoffMax().toNanos(), settings.backoffBase().toNanos() << Math.min(retry - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted during retry backoff");
+        }
+    }
+
+    private String modelName(Prompt prompt) {
+        ChatOptions options = prompt.getOptions();
+        if (options != null && options.getModel() != null) {
+            return options.getModel();
+        }
+        ChatOptions defaults = delegate.getDefaultOptions();
+        return defaults != null && defaults.getModel() != null ? defaults.getModel() : "default";
+    }
+
+    private static String promptKey(Prompt prompt) {
+        StringBuilder key = new StringBuilder();
+        for (Message message : prompt.getInstructions()) {
+            key.append(message.getMessageType()).append('\u0001').append(message.getText()).append('\u0002');
+        }
+        ChatOptions options = prompt.getOptions();
+        if (options != null) {
+            key.append(options.getTemperature()).append('\u0001').append(options.getMaxTokens());
+        }
+        return key.toString();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String model) {
+        return limiters.computeIfAbsent(model, name -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    settings.initialLimit(), settings.minLimit(), settings.maxLimit(), settings.backoffRatio());
+            Gauge.builder("llm.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("model", name)
+                    .register(meterRegistry);
+            Gauge.builder("llm.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                    .description("Model calls currently holding a permit")
+                    .tag("model", name)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    private Timer firstTokenTimer(String model) {
+        return firstTokenTimers.computeIfAbsent(model, name -> Timer.builder("llm.first_token")
+                .description("Time from sending a streaming prompt to its first token")
+                .tag("model", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private void count(String model, String outcome) {
+        counters.computeIfAbsent(new CounterKey(model, outcome), key -> Counter.builder("llm.calls")
+                        .description("Model calls by outcome")
+                        .tag("model", key.model())
+                        .tag("outcome", key.outcome())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private record CounterKey(String model, String outcome) {}
+
+    /**
+     * An attempt, or the wait for a permit, ran into the call's deadline.
+     */
+    static final class DeadlineExceededException extends RuntimeException {
+        DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+}
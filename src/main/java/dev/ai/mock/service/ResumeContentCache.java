@@ -0,0 +1,90 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.ResumeContent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of decoded {@link ResumeContent} per user, so starting an interview does not
+ * re-read and re-deserialize the stored JSON every time. Entries are dropped when this instance saves
+ * the user's resume; a save on another instance is picked up once the entry is older than the TTL
+ * ({@code resume.cache.ttl}), which is how long such an edit can go unseen here.
+ */
+@Component
+public class ResumeContentCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResumeContentCache(@Value("${resume.cache.max-entries:10000}") int maxEntries,
+                              @Value("${resume.cache.ttl:1m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("resume.content.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("resume.content.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("resume.content.cache.size", this, ResumeContentCache::size).register(meterRegistry);
+    }
+
+    public Optional<ResumeContent> get(Long userId) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = cache.get(userId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return Optional.of(entry.resumeContent());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(Long userId, ResumeContent resumeContent) {
+        lock.lock();
+        try {
+            cache.put(userId, new Entry(resumeContent, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            cache.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(ResumeContent resumeContent, long loadedAt) {}
+}
@@ -0,0 +1,212 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeSection;
+import dev.ai.mock.records.WorkExperience;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process vector index of resume sections (skills, projects, work experience), embedded locally
+ * with the bundled MiniLM model. Lets the interview prompt carry only the sections relevant to the
+ * job role instead of the whole serialized resume. Each user's sections remember the resume they were
+ * embedded from and are re-embedded when ranked against a different one, so the index is never staler
+ * than the resume the caller passes in (see {@link ResumeContentCache} for how stale that can be).
+ */
+@Service
+public class ResumeEmbeddingIndex {
+
+    private final EmbeddingModel embeddingModel;
+    private final int maxUsers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Embedded> index;
+
+    public ResumeEmbeddingIndex(ObjectProvider<EmbeddingModel> embeddingModel,
+                                @Value("${interview.resume.index.max-users:20000}") int maxUsers) {
+        this.embeddingModel = embeddingModel.getIfAvailable();
+        this.maxUsers = maxUsers;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Embedded> eldest) {
+                return size() > ResumeEmbeddingIndex.this.maxUsers;
+            }
+        };
+    }
+
+    /**
+     * @return false when no embedding model is configured; callers then fall back to the full resume.
+     */
+    public boolean isEnabled() {
+        return embeddingModel != null;
+    }
+
+    /**
+     * Embed and index the sections of a freshly parsed resume.
+     */
+    public void index(Long userId, ResumeContent resumeContent) {
+        if (isEnabled()) {
+            put(userId, new Embedded(resumeContent, embed(sections(resumeContent))));
+        }
+    }
+
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            index.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return all indexed sections of the user's resume, most similar to the query first.
+     * The user's sections are (re)indexed from {@code resumeContent} if not present or embedded from
+     * another version of the resume, e.g. one saved through another instance; without an
+     * embedding model the sections are returned in resume order.
+     */
+    public List<ResumeSection> rank(Long userId, ResumeContent resumeContent, String query) {
+        if (!isEnabled()) {
+            return sections(resumeContent);
+        }
+        List<Entry> entries = entries(userId, resumeContent);
+        if (entries.size() <= 1) {
+            return entries.stream().map(Entry::section).toList();
+        }
+
+        float[] queryVector = normalize(embeddingModel.embed(query));
+        double[] scores = new double[entries.size()];
+        List<Integer> ranked = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            scores[i] = dot(queryVector, entries.get(i).vector());
+            ranked.add(i);
+        }
+        ranked.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+        return ranked.stream()
+                .map(i -> entries.get(i).section())
+                .toList();
+    }
+
+    private List<Entry> entries(Long userId, ResumeContent resumeContent) {
+        Embedded embedded;
+        lock.lock();
+        try {
+            embedded = index.get(userId);
+        } finally {
+            lock.unlock();
+        }
+        if (embedded == null || !Objects.equals(embedded.resumeContent(), resumeContent)) {
+            embedded = new Embedded(resumeContent, embed(sections(resumeContent)));
+            put(userId, embedded);
+        }
+        return embedded.entries();
+    }
+
+    private void put(Long userId, Embedded embedded) {
+        lock.lock();
+        try {
+            index.put(userId, embedded);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static List<ResumeSection> sections(ResumeContent resumeContent) {
+        List<ResumeSection> sections = new ArrayList<>();
+        List<String> skills = resumeContent.skills();
+        if (skills != null) {
+            for (int i = 0; i < skills.size(); i++) {
+                if (skills.get(i) != null && !skills.get(i).isBlank()) {
+                    sections.add(new ResumeSection(ResumeSection.Kind.SKILL, i, skills.get(i).strip()));
+                }
+            }
+        }
+        List<WorkExperience> workExperience = resumeContent.workExperience();
+        if (workExperience != null) {
+            for (int i = 0; i < workExperience.size(); i++) {
+                WorkExperience work = workExperience.get(i);
+                sections.add(new ResumeSection(ResumeSection.Kind.WORK_EXPERIENCE, i,
+                        join(work.role(), work.company(), work.duration(), work.description())));
+            }
+        }
+        List<String> internships = resumeContent.internships();
+        if (internships != null) {
+            for (int i = 0; i < internships.size(); i++) {
+                if (internships.get(i) != null && !internships.get(i).isBlank()) {
+                    sections.add(new ResumeSection(ResumeSection.Kind.INTERNSHIP, i, internships.get(i).strip()));
+                }
+            }
+        }
+        List<Project> projects = resumeContent.projects();
+        if (projects != null) {
+            for (int i = 0; i < projects.size(); i++) {
+                Project project = projects.get(i);
+                sections.add(new ResumeSection(ResumeSection.Kind.PROJECT, i,
+                        join(project.title(), project.technologies(), project.description())));
+            }
+        }
+        return sections;
+    }
+
+    private List<Entry> embed(List<ResumeSection> sections) {
+        if (sections.isEmpty()) {
+            return List.of();
+        }
+        List<float[]> vectors = embeddingModel.embed(sections.stream().map(ResumeSection::text).toList());
+        List<Entry> entries = new ArrayList<>(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            entries.add(new Entry(sections.get(i), normalize(vectors.get(i))));
+        }
+        return entries;
+    }
+
+    static String join(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!sb.isEmpty()) {
+                    sb.append(" | ");
+                }
+                sb.append(part.strip());
+            }
+        }
+        return sb.toString();
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= (float) norm;
+            }
+        }
+        return vector;
+    }
+
+    static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record Entry(ResumeSection section, float[] vector) {}
+
+    private record Embedded(ResumeContent resumeContent, List<Entry> entries) {}
+}
@@ -2,15 +2,19 @@ package dev.ai.mock.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.ai.mock.entities.ResumeJsonEntity;
-import dev.ai.mock.entities.UserEntity;
 import dev.ai.mock.records.ResumeContent;
 import dev.ai.mock.repository.ResumeJsonRepository;
 import dev.ai.mock.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,40 +27,73 @@ public class ResumeFormatService {
     private ObjectMapper objectMapper;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ResumeEmbeddingIndex resumeEmbeddingIndex;
+    @Autowired
+    private ResumeContentCache resumeContentCache;
+    @Autowired
+    private ObservationRegistry observationRegistry;
+    @Autowired
+    private CandidateSearchIndex candidateSearchIndex;
+    @Autowired
+    private OpeningQuestionPrefetcher openingQuestionPrefetcher;
 
     public ResponseEntity<ResumeJsonEntity> saveResume(ResumeContent resumeContent, Long userId) {
+        return saveResume(resumeContent, userId, null);
+    }
+
+    /**
+     * @param sectionFingerprints Section fingerprints of the text {@code resumeContent} was extracted from,
+     *                            or null when it did not come from an upload
+     */
+    public ResponseEntity<ResumeJsonEntity> saveResume(ResumeContent resumeContent, Long userId, Map<String, String> sectionFingerprints) {
         if (resumeContent == null) {
             throw new IllegalArgumentException("Resume content cannot be null");
         }
 
-        Optional<UserEntity> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        UserEntity user = optionalUser.get();
-        String jsonString = convertToJsonString(resumeContent);
-
-        ResumeJsonEntity resumeJsonEntity = user.getResume();
+        // Existing resume: one select and an update. The user is never loaded, only referenced by id.
+        ResumeJsonEntity resumeJsonEntity = resumeJsonRepository.findByUserId(userId).orElse(null);
         if (resumeJsonEntity == null) {
+            if (!userRepository.existsById(userId)) {
+                return ResponseEntity.notFound().build();
+            }
             resumeJsonEntity = new ResumeJsonEntity();
-            resumeJsonEntity.setUser(user);
-            user.setResume(resumeJsonEntity);
+            resumeJsonEntity.setUser(userRepository.getReferenceById(userId));
         }
 
-        resumeJsonEntity.setResumeJson(jsonString);
-
-        System.out.println("Resume JSON Entity - ID: " + resumeJsonEntity.getId());
-        System.out.println("Resume JSON Entity - User ID: " + resumeJsonEntity.getUser().getId());
-        System.out.println("Resume JSON Entity - JSON: " + resumeJsonEntity.getResumeJson());
-
-        // Save the entity - JPA will handle the JSONB conversion
-        ResumeJsonEntity savedEntity = resumeJsonRepository.save(resumeJsonEntity);
+        resumeJsonEntity.setResumeJson(resumeContent);
+        resumeJsonEntity.setSectionFingerprints(sectionFingerprints);
+
+        // Save and flush inside the observation so it times the INSERT/UPDATE, not just the persist call
+        ResumeJsonEntity entity = resumeJsonEntity;
+        ResumeJsonEntity savedEntity = Observation.createNotStarted("resume.db.write", observationRegistry)
+                .observe(() -> resumeJsonRepository.saveAndFlush(entity));
+        // Until this transaction commits, a reader would just reload and cache the old resume, and the
+        // restarted prefetch would read it back; a rollback must leave the caches and the search index alone
+        afterCommit(() -> {
+            candidateSearchIndex.index(userId, resumeContent);
+            resumeEmbeddingIndex.invalidate(userId);
+            resumeContentCache.invalidate(userId);
+            openingQuestionPrefetcher.invalidate(userId);
+        });
 
         return ResponseEntity.ok(savedEntity);
     }
 
-    private String convertToJsonString(ResumeContent resumeContent) {
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public String convertToJsonString(ResumeContent resumeContent) {
         try {
             return objectMapper.writeValueAsString(resumeContent);
         } catch (Exception e) {
@@ -72,17 +109,26 @@ public class ResumeFormatService {
         }
     }
 
-    public ResumeContent getResume(Long id) {
-        Optional<ResumeJsonEntity> optionalEntity = resumeJsonRepository.findById(id);
-        if(optionalEntity.isPresent()) {
-            ResumeJsonEntity entity = optionalEntity.get();
-            String jsonString = entity.getResumeJson();
-            ResumeContent resumeContent = stringToJSON(jsonString);
-
-            return resumeContent;
-        } else {
-            throw new RuntimeException("Failed to get Resume");
+    /**
+     * Decoded resume of a user, served from {@link ResumeContentCache} or loaded with a single query.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResumeContent> getResumeByUserId(Long userId) {
+        Optional<ResumeContent> cached = resumeContentCache.get(userId);
+        if (cached.isPresent()) {
+            return cached;
         }
+        Optional<ResumeContent> loaded = resumeJsonRepository.findResumeJsonByUserId(userId);
+        loaded.ifPresent(resumeContent -> resumeContentCache.put(userId, resumeContent));
+        return loaded;
+    }
+
+    /**
+     * Stored resume together with the section fingerprints of the upload it was extracted from.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResumeJsonEntity> getStoredResume(Long userId) {
+        return resumeJsonRepository.findByUserId(userId);
     }
 
 }
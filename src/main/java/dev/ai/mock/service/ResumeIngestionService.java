@@ -0,0 +1,129 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.entities.ResumeJobEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeJob;
+import dev.ai.mock.repository.ResumeJobRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs resume uploads as background jobs: PDF text extraction, structured LLM parsing and
+ * persistence happen on {@code resumeIngestionExecutor} instead of the request thread. Job state is
+ * written to {@code resume_jobs} at every step, so a status poll can land on any instance; the job
+ * itself runs on the instance that accepted the upload.
+ */
+@Service
+public class ResumeIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumeIngestionService.class);
+
+    private final PdfParserService pdfParserService;
+    private final StructuredResumeParse structuredResumeParse;
+    private final AsyncTaskExecutor executor;
+    private final Duration jobTtl;
+    private final ObservationRegistry observationRegistry;
+    private final ResumeJobRepository jobs;
+
+    public ResumeIngestionService(PdfParserService pdfParserService,
+                                  StructuredResumeParse structuredResumeParse,
+                                  @Qualifier("resumeIngestionExecutor") AsyncTaskExecutor executor,
+                                  @Value("${resume.ingestion.job-ttl:1h}") Duration jobTtl,
+                                  ResumeJobRepository jobs,
+                                  ObservationRegistry observationRegistry) {
+        this.jobs = jobs;
+        this.observationRegistry = observationRegistry;
+        this.pdfParserService = pdfParserService;
+        this.structuredResumeParse = structuredResumeParse;
+        this.executor = executor;
+        this.jobTtl = jobTtl;
+    }
+
+    /**
+     * Queue a resume for processing.
+     * @param userId Owner of the resume
+     * @param pdf Spooled copy of the upload (the multipart temp file does not outlive the request);
+     *            ownership passes to the job, which deletes it when done
+     * @return The queued job
+     * @throws TaskRejectedException if the ingestion queue is full
+     */
+    public ResumeJob submit(Long userId, Path pdf) {
+        ResumeJob job = ResumeJob.queued(UUID.randomUUID().toString(), userId);
+        save(job);
+        try {
+            executor.execute(() -> process(job, pdf));
+        } catch (TaskRejectedException e) {
+            jobs.deleteById(job.id());
+            delete(pdf);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ResumeJob> getJob(String jobId) {
+        return jobs.findById(jobId).map(ResumeJobEntity::toJob);
+    }
+
+    private void process(ResumeJob job, Path pdf) {
+        save(job.processing());
+        Observation observation = Observation.createNotStarted("resume.ingest", observationRegistry).start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            String rawText = pdfParserService.parsePdfToText(pdf);
+            ResumeContent resumeContent = structuredResumeParse.structuredResume(rawText, job.userId());
+            observation.lowCardinalityKeyValue("outcome", "completed");
+            save(job.completed(resumeContent));
+        } catch (PdfRejectedException e) {
+            observation.lowCardinalityKeyValue("outcome", "rejected");
+            save(job.failed(e.getRejection().description()));
+        } catch (Exception e) {
+            log.warn("Resume job {} failed: {}", job.id(), e.getMessage());
+            observation.lowCardinalityKeyValue("outcome", "failed").error(e);
+            save(job.failed("Failed to process resume"));
+        } finally {
+            observation.stop();
+            delete(pdf);
+        }
+    }
+
+    private void save(ResumeJob job) {
+        jobs.save(ResumeJobEntity.of(job));
+    }
+
+    private void delete(Path pdf) {
+        try {
+            Files.deleteIfExists(pdf);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled resume {}: {}", pdf, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops jobs not updated within the TTL: finished ones nobody polled for, and unfinished ones whose
+     * instance went away mid-job.
+     */
+    @Scheduled(fixedDelayString = "${resume.ingestion.cleanup-interval:300000}")
+    public void evictFinishedJobs() {
+        try {
+            jobs.deleteUpdatedBefore(Instant.now().minus(jobTtl));
+        } catch (DataAccessException e) {
+            log.warn("Could not evict expired resume jobs: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.entities.ResumeParseCacheEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.repository.ResumeParseCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Persistent cache of structured resume extractions keyed by a hash of the normalized raw text
+ * and the prompt/model version, so re-uploads of the same PDF skip the LLM round trip.
+ */
+@Service
+public class ResumeParseCache {
+
+    /** Bump whenever the extraction prompt or the ResumeContent shape changes. */
+    public static final String PROMPT_VERSION = "1";
+
+    private final ResumeParseCacheRepository repository;
+    private final ResumeFormatService resumeFormatService;
+    private final String modelName;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResumeParseCache(ResumeParseCacheRepository repository,
+                            ResumeFormatService resumeFormatService,
+                            @Value("${spring.ai.openai.chat.options.model:unknown}") String modelName,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.resumeFormatService = resumeFormatService;
+        this.modelName = modelName;
+        this.hits = Counter.builder("resume.parse.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("resume.parse.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public String key(String rawText) {
+        String material = PROMPT_VERSION + '\0' + modelName + '\0' + normalize(rawText);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<ResumeContent> get(String key) {
+        Optional<ResumeContent> cached = repository.findById(key)
+                .map(entity -> resumeFormatService.stringToJSON(entity.getResumeJson()));
+        (cached.isPresent() ? hits : misses).increment();
+        return cached;
+    }
+
+    public void put(String key, ResumeContent resumeContent) {
+        ResumeParseCacheEntity entity = new ResumeParseCacheEntity();
+        entity.setContentHash(key);
+        entity.setResumeJson(resumeFormatService.convertToJsonString(resumeContent));
+        entity.setCreatedAt(Instant.now());
+        try {
+            repository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same text stored it first; both results are equivalent.
+        }
+    }
+
+    /**
+     * Collapse whitespace so the same PDF re-extracted with different line breaks hashes identically.
+     */
+    static String normalize(String rawText) {
+        return rawText == null ? "" : rawText.strip().replaceAll("\\s+", " ");
+    }
+}
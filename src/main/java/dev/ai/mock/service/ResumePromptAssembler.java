@@ -0,0 +1,175 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.Education;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeSection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders a compact, deterministic resume digest for the interview prompt.
+ * Contact details, links and empty fields are dropped, long texts are truncated and sections are
+ * added in priority order (most relevant to the job role first) until the token budget is spent.
+ */
+@Service
+public class ResumePromptAssembler {
+
+    private final ResumeEmbeddingIndex resumeEmbeddingIndex;
+    private final PromptTokenCounter tokenCounter;
+    private final int tokenBudget;
+    private final int maxTextChars;
+
+    public ResumePromptAssembler(ResumeEmbeddingIndex resumeEmbeddingIndex,
+                                 PromptTokenCounter tokenCounter,
+                                 @Value("${interview.prompt.resume-token-budget:600}") int tokenBudget,
+                                 @Value("${interview.prompt.max-text-chars:300}") int maxTextChars) {
+        this.resumeEmbeddingIndex = resumeEmbeddingIndex;
+        this.tokenCounter = tokenCounter;
+        this.tokenBudget = tokenBudget;
+        this.maxTextChars = maxTextChars;
+    }
+
+    public String digest(Long userId, ResumeContent resumeContent, String jobRole, String company) {
+        List<ResumeSection> candidates = new ArrayList<>(
+                resumeEmbeddingIndex.rank(userId, resumeContent, jobRole + " at " + company));
+        candidates.addAll(supplementarySections(resumeContent));
+
+        StringBuilder digest = new StringBuilder();
+        if (!isBlank(resumeContent.candidateName())) {
+            digest.append("Candidate: ").append(resumeContent.candidateName().strip()).append('\n');
+        }
+        int used = tokenCounter.count(digest.toString());
+
+        // Keep resume order within each kind so the digest is stable for the same resume and role.
+        Map<ResumeSection.Kind, List<Selected>> selected = new EnumMap<>(ResumeSection.Kind.class);
+        Set<String> seen = new LinkedHashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            ResumeSection section = candidates.get(i);
+            String text = truncate(section.text());
+            if (text.isEmpty() || !seen.add(section.kind() + text.toLowerCase())) {
+                continue;
+            }
+            int cost = tokenCounter.count(text) + 2;
+            if (used + cost > tokenBudget) {
+                continue;
+            }
+            used += cost;
+            selected.computeIfAbsent(section.kind(), k -> new ArrayList<>()).add(new Selected(section.position(), text));
+        }
+
+        for (Map.Entry<ResumeSection.Kind, List<Selected>> entry : selected.entrySet()) {
+            List<Selected> items = entry.getValue();
+            items.sort(Comparator.comparingInt(Selected::order));
+            digest.append(label(entry.getKey())).append(':');
+            if (entry.getKey() == ResumeSection.Kind.SKILL || entry.getKey() == ResumeSection.Kind.CERTIFICATION) {
+                digest.append(' ').append(String.join(", ", items.stream().map(Selected::text).toList())).append('\n');
+            } else {
+                digest.append('\n');
+                for (Selected item : items) {
+                    digest.append("- ").append(item.text()).append('\n');
+                }
+            }
+        }
+        return digest.toString().strip();
+    }
+
+    /**
+     * The parts of a resume that identify the candidate rather than describe their skills: name, location,
+     * employers, project titles and institutions. The semantic cache keeps them out of what it matches on
+     * and does not store an answer that repeats one.
+     */
+    public Set<String> personalTerms(ResumeContent resumeContent) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTerm(terms, resumeContent.candidateName());
+        if (!isBlank(resumeContent.candidateName())) {
+            // "Hi Jane" names the candidate as much as "Jane Doe" does
+            for (String part : resumeContent.candidateName().strip().split("\\s+")) {
+                addTerm(terms, part);
+            }
+        }
+        addTerm(terms, resumeContent.location());
+        if (resumeContent.workExperience() != null) {
+            resumeContent.workExperience().forEach(work -> addTerm(terms, work.company()));
+        }
+        if (resumeContent.projects() != null) {
+            resumeContent.projects().forEach(project -> addTerm(terms, project.title()));
+        }
+        if (resumeContent.education() != null) {
+            resumeContent.education().forEach(education -> addTerm(terms, education.institution()));
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<String> terms, String value) {
+        // Initials and single letters would match everywhere
+        if (value != null && value.strip().length() > 1) {
+            terms.add(value.strip());
+        }
+    }
+
+    private List<ResumeSection> supplementarySections(ResumeContent resumeContent) {
+        List<ResumeSection> sections = new ArrayList<>();
+        if (resumeContent.education() != null) {
+            for (int i = 0; i < resumeContent.education().size(); i++) {
+                Education education = resumeContent.education().get(i);
+                String text = ResumeEmbeddingIndex.join(education.degree(), education.institution(), education.duration());
+                sections.add(new ResumeSection(ResumeSection.Kind.EDUCATION, i, text));
+            }
+        }
+        addAll(sections, ResumeSection.Kind.CERTIFICATION, resumeContent.certifications());
+        addAll(sections, ResumeSection.Kind.ACHIEVEMENT, resumeContent.achievements());
+        if (!isBlank(resumeContent.careerObjective())) {
+            sections.add(new ResumeSection(ResumeSection.Kind.OBJECTIVE, 0, resumeContent.careerObjective().strip()));
+        }
+        return sections;
+    }
+
+    private static void addAll(List<ResumeSection> sections, ResumeSection.Kind kind, List<String> values) {
+        if (values != null) {
+            for (int i = 0; i < values.size(); i++) {
+                if (!isBlank(values.get(i))) {
+                    sections.add(new ResumeSection(kind, i, values.get(i).strip()));
+                }
+            }
+        }
+    }
+
+    private String truncate(String text) {
+        if (text == null) {
+            return "";
+        }
+        String compact = text.strip().replaceAll("\\s+", " ");
+        if (compact.length() <= maxTextChars) {
+            return compact;
+        }
+        int cut = compact.lastIndexOf(' ', maxTextChars);
+        return compact.substring(0, cut > maxTextChars / 2 ? cut : maxTextChars) + "...";
+    }
+
+    private static String label(ResumeSection.Kind kind) {
+        return switch (kind) {
+            case SKILL -> "Skills";
+            case WORK_EXPERIENCE -> "Experience";
+            case INTERNSHIP -> "Internships";
+            case PROJECT -> "Projects";
+            case EDUCATION -> "Education";
+            case CERTIFICATION -> "Certifications";
+            case ACHIEVEMENT -> "Achievements";
+            case OBJECTIVE -> "Objective";
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Selected(int order, String text) {}
+}
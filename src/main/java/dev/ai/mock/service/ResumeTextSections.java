@@ -0,0 +1,92 @@
+package dev.ai.mock.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits raw resume text into its headed sections, so a re-upload can be compared section by section
+ * with the text the stored {@link dev.ai.mock.records.ResumeContent} was extracted from.
+ */
+final class ResumeTextSections {
+
+    /** Longest line still considered a heading; longer lines are body text even if they start with a heading word. */
+    private static final int MAX_HEADING_LENGTH = 40;
+
+    /**
+     * Resume text sections and the {@code ResumeContent} fields each one is extracted into.
+     * {@link #HEADER} is everything before the first recognised heading.
+     */
+    enum Section {
+        HEADER(Set.of(), "candidateName", "location", "contactDetails", "links"),
+        OBJECTIVE(Set.of("objective", "career objective", "summary", "professional summary", "profile",
+                "professional profile", "about me"), "careerObjective"),
+        SKILLS(Set.of("skills", "technical skills", "key skills", "core skills", "core competencies",
+                "skills and tools", "tech stack"), "skills"),
+        EXPERIENCE(Set.of("experience", "work experience", "professional experience", "employment",
+                "employment history", "work history"), "workExperience"),
+        INTERNSHIPS(Set.of("internship", "internships", "internship experience"), "internships"),
+        EDUCATION(Set.of("education", "academic background", "academics", "education and training"), "education"),
+        PROJECTS(Set.of("projects", "personal projects", "academic projects", "key projects", "selected projects"), "projects"),
+        CERTIFICATIONS(Set.of("certifications", "certificates", "licenses and certifications",
+                "licenses certifications", "courses"), "certifications"),
+        ACHIEVEMENTS(Set.of("achievements", "awards", "honors", "honours", "accomplishments",
+                "awards and achievements", "awards achievements", "honors and awards"), "achievements");
+
+        private final Set<String> headings;
+        private final List<String> fields;
+
+        Section(Set<String> headings, String... fields) {
+            this.headings = headings;
+            this.fields = List.of(fields);
+        }
+
+        List<String> fields() {
+            return fields;
+        }
+    }
+
+    private ResumeTextSections() {
+    }
+
+    /**
+     * Text of each section present, in {@link Section} order. A heading that repeats (two "Projects"
+     * blocks) accumulates into one entry; lines under an unrecognised heading stay with the section above.
+     */
+    static Map<Section, String> split(String rawText) {
+        Map<Section, StringBuilder> sections = new EnumMap<>(Section.class);
+        Section current = Section.HEADER;
+        for (String line : (rawText == null ? "" : rawText).split("\\R")) {
+            Section heading = heading(line);
+            if (heading != null) {
+                current = heading;
+                sections.computeIfAbsent(current, section -> new StringBuilder());
+                continue;
+            }
+            if (!line.isBlank()) {
+                sections.computeIfAbsent(current, section -> new StringBuilder()).append(line.strip()).append('\n');
+            }
+        }
+        Map<Section, String> text = new EnumMap<>(Section.class);
+        sections.forEach((section, body) -> text.put(section, body.toString()));
+        return text;
+    }
+
+    private static Section heading(String line) {
+        if (line.length() > MAX_HEADING_LENGTH) {
+            return null;
+        }
+        String normalized = line.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}]+", " ").strip();
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        for (Section section : Section.values()) {
+            if (section.headings.contains(normalized)) {
+                return section;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,411 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Semantic cache in front of the hosted model, as a {@code ChatClient} advisor. A prompt is split into its
+ * context (model, system prompt and any history, matched exactly, so role and company must be the same) and
+ * its last user message (for an opening question, the resume digest), which is matched by similarity:
+ * embedded with the local MiniLM model and looked up in a random-hyperplane LSH index. A cached answer whose
+ * prompt is at least {@code threshold} similar is served without calling the provider.
+ * <p>
+ * Only prompts tagged with an {@link #ENDPOINT} listed in {@code interview.semantic-cache.endpoints} go
+ * through the cache. The advisor sits inside the memory advisor, so a cached answer is remembered like a
+ * generated one. Entries expire after a TTL and the least recently used are evicted beyond {@code max-entries}.
+ * <p>
+ * The candidate's {@link #PERSONAL_TERMS} (name, employers, projects...) are masked out of the text that is
+ * embedded, and an answer that mentions one of them is not stored, so a cached answer never carries one
+ * candidate's details to another.
+ */
+@Service
+public class SemanticResponseCache implements CallAdvisor, StreamAdvisor {
+
+    private static final Logger log = LoggerFactory.getLogger(SemanticResponseCache.class);
+
+    /** Advisor parameter naming the endpoint a prompt comes from. */
+    public static final String ENDPOINT = "semantic_cache_endpoint";
+    /** Advisor parameter: a {@code Collection<String>} of the terms that identify the candidate of the prompt. */
+    public static final String PERSONAL_TERMS = "semantic_cache_personal_terms";
+
+    // MiniLM reads at most 256 tokens: longer prompts are embedded in chunks, and the chunk vectors concatenated,
+    // so their similarity is the mean of the chunks' similarities rather than that of the first 256 tokens
+    private static final int CHUNK_CHARS = 800;
+    private static final int MAX_CHUNKS = 4;
+    // 8 tables of 12 hyperplanes: ~97% recall at cosine 0.95, buckets small enough to verify exactly
+    private static final int TABLES = 8;
+    private static final int BITS = 12;
+
+    private record Query(String context, float[] vector, List<Pattern> personalTerms) {}
+
+    private record Entry(long id, String context, float[] vector, long[] buckets, String answer, long createdAt) {}
+
+    private final EmbeddingModel embeddingModel;
+    private final Set<String> endpoints;
+    private final double threshold;
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries;
+    private final HashMap<Long, List<Entry>> buckets = new HashMap<>();
+    private float[][] hyperplanes;
+    private long nextId;
+
+    private final Counter capacityEvictions;
+    private final Counter expiredEvictions;
+    private final Counter personalAnswers;
+    private final Map<String, Counter> hits = new HashMap<>();
+    private final Map<String, Counter> misses = new HashMap<>();
+
+    public SemanticResponseCache(ObjectProvider<EmbeddingModel> embeddingModel,
+                                 @Value("${interview.semantic-cache.endpoints:}") Set<String> endpoints,
+                                 @Value("${interview.semantic-cache.similarity-threshold:0.95}") double threshold,
+                                 @Value("${interview.semantic-cache.ttl:6h}") Duration ttl,
+                                 @Value("${interview.semantic-cache.max-entries:2000}") int maxEntries,
+                                 MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel.getIfAvailable();
+        this.endpoints = endpoints;
+        this.threshold = threshold;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    unindex(eldest.getValue());
+                    capacityEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.capacityEvictions = Counter.builder("interview.semantic.cache.evictions").tag("reason", "capacity").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("interview.semantic.cache.evictions").tag("reason", "expired").register(meterRegistry);
+        this.personalAnswers = Counter.builder("interview.semantic.cache.uncached").tag("reason", "personal").register(meterRegistry);
+        for (String endpoint : endpoints) {
+            hits.put(endpoint, Counter.builder("interview.semantic.cache").tag("endpoint", endpoint).tag("result", "hit").register(meterRegistry));
+            misses.put(endpoint, Counter.builder("interview.semantic.cache").tag("endpoint", endpoint).tag("result", "miss").register(meterRegistry));
+        }
+        Gauge.builder("interview.semantic.cache.size", this, SemanticResponseCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "SemanticResponseCache";
+    }
+
+    @Override
+    public int getOrder() {
+        return Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER + 100;
+    }
+
+    public boolean isEnabled(String endpoint) {
+        return embeddingModel != null && endpoint != null && endpoints.contains(endpoint);
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        String endpoint = endpoint(request);
+        Query query = isEnabled(endpoint) ? query(request.prompt(), personalTerms(request)) : null;
+        if (query == null) {
+            return chain.nextCall(request);
+        }
+        Optional<String> cached = lookup(query);
+        count(endpoint, cached.isPresent());
+        if (cached.isPresent()) {
+            return response(cached.get(), request.context());
+        }
+        ChatClientResponse response = chain.nextCall(request);
+        put(query, answer(response));
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        String endpoint = endpoint(request);
+        if (!isEnabled(endpoint)) {
+            return chain.nextStream(request);
+        }
+        // Embedding blocks on the ONNX engine, so keep it off the caller's event loop
+        return Mono.fromCallable(() -> Optional.ofNullable(query(request.prompt(), personalTerms(request))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(query -> {
+                    if (query.isEmpty()) {
+                        return chain.nextStream(request);
+                    }
+                    Optional<String> cached = lookup(query.get());
+                    count(endpoint, cached.isPresent());
+                    if (cached.isPresent()) {
+                        return Flux.just(response(cached.get(), request.context()));
+                    }
+                    return new ChatClientMessageAggregator().aggregateChatClientResponse(chain.nextStream(request),
+                            aggregated -> put(query.get(), answer(aggregated)));
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${interview.semantic-cache.eviction-interval:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        lock.lock();
+        try {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.createdAt() < cutoff) {
+                    it.remove();
+                    unindex(entry);
+                    expiredEvictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The prompt's exact-match context and the embedding of its last user message without the
+     *         candidate's personal terms, or null if it does not end in a user message or cannot be embedded
+     */
+    private Query query(Prompt prompt, List<Pattern> personalTerms) {
+        List<Message> messages = prompt.getInstructions();
+        if (messages.isEmpty() || messages.get(messages.size() - 1).getMessageType() != MessageType.USER) {
+            return null;
+        }
+        StringBuilder context = new StringBuilder();
+        if (prompt.getOptions() != null && prompt.getOptions().getModel() != null) {
+            context.append(prompt.getOptions().getModel());
+        }
+        for (Message message : messages.subList(0, messages.size() - 1)) {
+            context.append('\u0000').append(message.getMessageType()).append(':').append(message.getText());
+        }
+        try {
+            String text = normalize(messages.get(messages.size() - 1).getText());
+            for (Pattern term : personalTerms) {
+                text = term.matcher(text).replaceAll("");
+            }
+            return new Query(context.toString(), embed(normalize(text)), personalTerms);
+        } catch (RuntimeException e) {
+            log.debug("Semantic cache skipped, prompt could not be embedded: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private float[] embed(String text) {
+        List<String> chunks = chunks(text);
+        List<float[]> vectors = embeddingModel.embed(chunks);
+        int dimensions = vectors.get(0).length;
+        float[] vector = new float[dimensions * MAX_CHUNKS];
+        for (int i = 0; i < vectors.size(); i++) {
+            System.arraycopy(ResumeEmbeddingIndex.normalize(vectors.get(i)), 0, vector, i * dimensions, dimensions);
+        }
+        return ResumeEmbeddingIndex.normalize(vector);
+    }
+
+    private Optional<String> lookup(Query query) {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        lock.lock();
+        try {
+            Entry best = null;
+            double bestScore = threshold;
+            for (long bucket : buckets(query)) {
+                for (Entry entry : buckets.getOrDefault(bucket, List.of())) {
+                    if (entry.createdAt() < cutoff || !entry.context().equals(query.context())) {
+                        continue;
+                    }
+                    double score = ResumeEmbeddingIndex.dot(query.vector(), entry.vector());
+                    if (score >= bestScore) {
+                        best = entry;
+                        bestScore = score;
+                    }
+                }
+            }
+            if (best == null) {
+                return Optional.empty();
+            }
+            entries.get(best.id());
+            return Optional.of(best.answer());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Query query, String answer) {
+        if (answer == null || answer.isBlank()) {
+            return;
+        }
+        String normalized = normalize(answer);
+        for (Pattern term : query.personalTerms()) {
+            if (term.matcher(normalized).find()) {
+                personalAnswers.increment();
+                return;
+            }
+        }
+        lock.lock();
+        try {
+            Entry entry = new Entry(nextId++, query.context(), query.vector(), buckets(query), answer, System.currentTimeMillis());
+            for (long bucket : entry.buckets()) {
+                buckets.computeIfAbsent(bucket, b -> new ArrayList<>(2)).add(entry);
+            }
+            entries.put(entry.id(), entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Caller holds the lock. */
+    private void unindex(Entry entry) {
+        for (long bucket : entry.buckets()) {
+            List<Entry> list = buckets.get(bucket);
+            if (list != null && list.remove(entry) && list.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    /**
+     * One bucket per table: the signs of the vector against the table's hyperplanes, scoped to the context.
+     * Caller holds the lock.
+     */
+    private long[] buckets(Query query) {
+        float[] vector = query.vector();
+        if (hyperplanes == null || hyperplanes[0].length != vector.length) {
+            hyperplanes = hyperplanes(vector.length);
+        }
+        long scope = (long) query.context().hashCode() * TABLES;
+        long[] keys = new long[TABLES];
+        for (int table = 0; table < TABLES; table++) {
+            long signature = 0;
+            for (int bit = 0; bit < BITS; bit++) {
+                if (ResumeEmbeddingIndex.dot(vector, hyperplanes[table * BITS + bit]) >= 0) {
+                    signature |= 1L << bit;
+                }
+            }
+            keys[table] = ((scope + table) << BITS) | signature;
+        }
+        return keys;
+    }
+
+    private static float[][] hyperplanes(int dimensions) {
+        // Fixed seed: every instance buckets the same way, which keeps behaviour reproducible
+        Random random = new Random(0x5EED);
+        float[][] planes = new float[TABLES * BITS][dimensions];
+        for (float[] plane : planes) {
+            for (int i = 0; i < dimensions; i++) {
+                plane[i] = (float) random.nextGaussian();
+            }
+        }
+        return planes;
+    }
+
+    static List<String> chunks(String text) {
+        List<String> chunks = new ArrayList<>(MAX_CHUNKS);
+        int start = 0;
+        while (start < text.length() && chunks.size() < MAX_CHUNKS - 1) {
+            int end = Math.min(text.length(), start + CHUNK_CHARS);
+            if (end < text.length()) {
+                int space = text.lastIndexOf(' ', end);
+                if (space > start) {
+                    end = space;
+                }
+            }
+            chunks.add(text.substring(start, end));
+            start = end + 1;
+        }
+        if (start < text.length() || chunks.isEmpty()) {
+            chunks.add(text.substring(Math.min(start, text.length())));
+        }
+        return chunks;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The request's personal terms, as whole-word patterns over {@link #normalize normalized} text.
+     */
+    static List<Pattern> personalTerms(ChatClientRequest request) {
+        if (!(request.context().get(PERSONAL_TERMS) instanceof Collection<?> terms)) {
+            return List.of();
+        }
+        List<Pattern> patterns = new ArrayList<>(terms.size());
+        for (Object term : terms) {
+            String normalized = term == null ? "" : normalize(term.toString());
+            if (!normalized.isEmpty()) {
+                patterns.add(Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(normalized) + "(?![\\p{L}\\p{N}])"));
+            }
+        }
+        return patterns;
+    }
+
+    private static String endpoint(ChatClientRequest request) {
+        return request.context().get(ENDPOINT) instanceof String endpoint ? endpoint : null;
+    }
+
+    private static String answer(ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getOutput() == null) {
+            return null;
+        }
+        return chatResponse.getResult().getOutput().getText();
+    }
+
+    private static ChatClientResponse response(String answer, Map<String, Object> context) {
+        return ChatClientResponse.builder()
+                .chatResponse(new ChatResponse(List.of(new Generation(new AssistantMessage(answer)))))
+                .context(context)
+                .build();
+    }
+
+    private void count(String endpoint, boolean hit) {
+        (hit ? hits : misses).get(endpoint).increment();
+    }
+}
@@ -0,0 +1,156 @@
+package dev.ai.mock.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies the HMAC-SHA256 signed session token that replaces the server-side HTTP session.
+ * The token carries the user id, email and authorities, so any instance can authenticate a request
+ * without a session store or a database lookup. Each kind of signed value is signed with its own key,
+ * derived from the secret and a purpose label, so a value signed for one use never verifies as another.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** Purpose label of the session token key. */
+    private static final String SESSION_PURPOSE = "session";
+
+    public record SessionToken(long userId, String email, List<String> authorities, Instant expiresAt) {}
+
+    private final SecretKeySpec secret;
+    private final Map<String, SecretKeySpec> keys = new ConcurrentHashMap<>();
+    private final Duration ttl;
+
+    public SessionTokenService(@Value("${session.token.secret:}") String secret,
+                               @Value("${session.token.ttl:12h}") Duration ttl) {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("session.token.secret is not set; using a random key, so sessions end on restart and are not accepted by other instances");
+        } else if (keyBytes.length < 32) {
+            throw new IllegalStateException("session.token.secret must be at least 32 bytes");
+        }
+        this.secret = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public String issue(long userId, String email, Collection<String> authorities) {
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String payload = userId + ":" + expiresAt + ":" + String.join(",", authorities) + ":" + email;
+        return sign(SESSION_PURPOSE, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The token's claims, or empty if it is malformed, tampered with or expired
+     */
+    public Optional<SessionToken> verify(String token) {
+        return unsign(SESSION_PURPOSE, token).flatMap(bytes -> {
+            String[] parts = new String(bytes, StandardCharsets.UTF_8).split(":", 4);
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+            try {
+                Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+                if (expiresAt.isBefore(Instant.now())) {
+                    return Optional.empty();
+                }
+                List<String> authorities = parts[2].isEmpty() ? List.of() : List.of(parts[2].split(","));
+                return Optional.of(new SessionToken(Long.parseLong(parts[0]), parts[3], authorities, expiresAt));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Sign arbitrary bytes that have to round-trip through the client, e.g. a cookie, with an expiry that
+     * {@link #unsignUnexpired} checks.
+     *
+     * @param purpose What the value is for; only {@link #unsignUnexpired} with the same purpose accepts it
+     */
+    public String signWithExpiry(String purpose, byte[] payload, Duration validFor) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + payload.length);
+        buffer.putLong(Instant.now().plus(validFor).getEpochSecond()).put(payload);
+        return sign(purpose, buffer.array());
+    }
+
+    /**
+     * @return The payload of a value produced by {@link #signWithExpiry} for this purpose, or empty if the
+     * signature does not match or it has expired
+     */
+    public Optional<byte[]> unsignUnexpired(String purpose, String value) {
+        return unsign(purpose, value)
+                .filter(bytes -> bytes.length >= Long.BYTES
+                        && ByteBuffer.wrap(bytes).getLong() >= Instant.now().getEpochSecond())
+                .map(bytes -> Arrays.copyOfRange(bytes, Long.BYTES, bytes.length));
+    }
+
+    /**
+     * @return {@code base64url(payload) + "." + base64url(mac)}
+     */
+    private String sign(String purpose, byte[] payload) {
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(mac(key(purpose), payload));
+    }
+
+    private Optional<byte[]> unsign(String purpose, String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = DECODER.decode(value.substring(0, dot));
+            byte[] signature = DECODER.decode(value.substring(dot + 1));
+            return MessageDigest.isEqual(mac(key(purpose), payload), signature) ? Optional.of(payload) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** HMAC(secret, purpose): one key per purpose, none of them the secret itself. */
+    private SecretKeySpec key(String purpose) {
+        return keys.computeIfAbsent(purpose,
+                p -> new SecretKeySpec(mac(secret, p.getBytes(StandardCharsets.UTF_8)), ALGORITHM));
+    }
+
+    private static byte[] mac(SecretKeySpec key, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
@@ -1,44 +1,213 @@
 package dev.ai.mock.service;
 
+import dev.ai.mock.entities.ResumeJsonEntity;
 import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.service.ResumeTextSections.Section;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.converter.StructuredOutputConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 public class StructuredResumeParse {
 
+    private static final String SYSTEM_INSTRUCTION = """
+            You are an intelligent AI Resume Parsing Agent designed to extract structured and relevant information from raw text resumes.
+            Your task is to analyze and extract all meaningful career-related entities from unstructured text parsed from a PDF resume.
+            Focus on accuracy, ignore any irrelevant text like headers, page numbers, or formatting artifacts.
+            Return the results in a structured JSON format under clearly labeled fields.
+            """;
+
     private final ChatClient chatClient;
     private final ResumeFormatService resumeFormatService;
-    public StructuredResumeParse(ChatClient.Builder builder, ResumeFormatService resumeFormatService) {
+    private final ResumeParseCache resumeParseCache;
+    private final ResumeEmbeddingIndex resumeEmbeddingIndex;
+    private final StructuredOutputConverter<ResumeContent> outputConverter;
+    private final boolean incremental;
+    private final double maxChangedRatio;
+    private final Counter sectionsExtracted;
+    private final Counter sectionsReused;
+    public StructuredResumeParse(ChatClient.Builder builder, ResumeFormatService resumeFormatService, ResumeParseCache resumeParseCache, ResumeEmbeddingIndex resumeEmbeddingIndex,
+                                 ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+                                 @Value("${resume.parse.incremental.enabled:true}") boolean incremental,
+                                 @Value("${resume.parse.incremental.max-changed-ratio:0.5}") double maxChangedRatio) {
         this.chatClient = builder.build();
+        this.outputConverter = new ObservedOutputConverter<>(new BeanOutputConverter<>(ResumeContent.class), observationRegistry);
         this.resumeFormatService = resumeFormatService;
+        this.resumeParseCache = resumeParseCache;
+        this.resumeEmbeddingIndex = resumeEmbeddingIndex;
+        this.incremental = incremental;
+        this.maxChangedRatio = maxChangedRatio;
+        this.sectionsExtracted = Counter.builder("resume.parse.sections").tag("result", "extracted").register(meterRegistry);
+        this.sectionsReused = Counter.builder("resume.parse.sections").tag("result", "reused").register(meterRegistry);
     }
 
     public ResumeContent structuredResume(String rawText, Long userId) {
-        var systemInstruction = """
-                You are an intelligent AI Resume Parsing Agent designed to extract structured and relevant information from raw text resumes.
-                Your task is to analyze and extract all meaningful career-related entities from unstructured text parsed from a PDF resume.
-                Focus on accuracy, ignore any irrelevant text like headers, page numbers, or formatting artifacts.
-                Return the results in a structured JSON format under clearly labeled fields.
-                """;
+        Map<Section, String> sections = ResumeTextSections.split(rawText);
+        Map<String, String> fingerprints = fingerprint(sections);
+        String cacheKey = resumeParseCache.key(rawText);
+        ResumeContent resumeContent = resumeParseCache.get(cacheKey)
+                .orElseGet(() -> {
+                    ResumeContent parsed = reparse(userId, sections, fingerprints)
+                            .orElseGet(() -> {
+                                sectionsExtracted.increment(sections.size());
+                                return extract(rawText);
+                            });
+                    resumeParseCache.put(cacheKey, parsed);
+                    return parsed;
+                });
 
+        resumeFormatService.saveResume(resumeContent, userId, fingerprints);
+        resumeEmbeddingIndex.index(userId, resumeContent);
+        return resumeContent;
+    }
+
+    /**
+     * Re-extract only the sections whose fingerprint differs from those of the user's previous upload and merge
+     * them into the stored resume. Empty when there is nothing to compare against, the layout was not recognised,
+     * or so much changed that a full extraction is as cheap.
+     */
+    private Optional<ResumeContent> reparse(Long userId, Map<Section, String> sections, Map<String, String> fingerprints) {
+        if (!incremental || sections.keySet().stream().noneMatch(section -> section != Section.HEADER)) {
+            return Optional.empty();
+        }
+        Optional<ResumeJsonEntity> stored = resumeFormatService.getStoredResume(userId);
+        if (stored.isEmpty() || stored.get().getResumeJson() == null || stored.get().getSectionFingerprints() == null) {
+            return Optional.empty();
+        }
+        Map<String, String> previous = stored.get().getSectionFingerprints();
+
+        // A section missing from one side is changed too: added ones are extracted, removed ones come back null
+        Set<Section> changed = EnumSet.noneOf(Section.class);
+        for (Section section : Section.values()) {
+            if (!Objects.equals(previous.get(section.name()), fingerprints.get(section.name()))) {
+                changed.add(section);
+            }
+        }
+        Map<Section, String> changedText = new LinkedHashMap<>();
+        sections.forEach((section, text) -> {
+            if (changed.contains(section)) {
+                changedText.put(section, text);
+            }
+        });
+        int totalLength = sections.values().stream().mapToInt(String::length).sum();
+        int changedLength = changedText.values().stream().mapToInt(String::length).sum();
+        if (changedLength > totalLength * maxChangedRatio) {
+            return Optional.empty();
+        }
+
+        sectionsExtracted.increment(changedText.size());
+        sectionsReused.increment(sections.size() - changedText.size());
+        ResumeContent partial = changedText.isEmpty()
+                ? new ResumeContent(null, null, null, null, null, null, null, null, null, null, null, null)
+                : extractSections(changedText);
+        return Optional.of(merge(stored.get().getResumeJson(), partial, changed));
+    }
+
+    private Map<String, String> fingerprint(Map<Section, String> sections) {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        sections.forEach((section, text) -> fingerprints.put(section.name(), resumeParseCache.key(section.name() + '\n' + text)));
+        return fingerprints;
+    }
+
+    private ResumeContent extract(String rawText) {
         var userPrompt = """
                 Below is the rawText extracted from a user's resume PDF:
                 
                 {rawText}
                 """;
 
-        ResumeContent resumeContent = chatClient.prompt()
-                .system(systemInstruction)
+        return chatClient.prompt()
+                .system(SYSTEM_INSTRUCTION)
                 .user(u -> {
                     u.text(userPrompt);
                     u.param("rawText", rawText);
                 })
                 .call()
-                .entity(ResumeContent.class);
+                .entity(outputConverter);
+    }
 
-        resumeFormatService.saveResume(resumeContent, userId);
-        return resumeContent;
+    private ResumeContent extractSections(Map<Section, String> sections) {
+        var systemInstruction = SYSTEM_INSTRUCTION + """
+                Only some sections of the resume are given. Fill in only these fields: {fields}.
+                Leave every other field null.
+                """;
+
+        var userPrompt = """
+                Below are sections of the rawText extracted from a user's resume PDF:
+                
+                {sections}
+                """;
+
+        String fields = sections.keySet().stream()
+                .flatMap(section -> section.fields().stream())
+                .collect(Collectors.joining(", "));
+        String text = sections.entrySet().stream()
+                .map(section -> section.getKey().name() + "\n" + section.getValue())
+                .collect(Collectors.joining("\n"));
+        return chatClient.prompt()
+                .system(s -> {
+                    s.text(systemInstruction);
+                    s.param("fields", fields);
+                })
+                .user(u -> {
+                    u.text(userPrompt);
+                    u.param("sections", text);
+                })
+                .call()
+                .entity(outputConverter);
+    }
+
+    private static ResumeContent merge(ResumeContent stored, ResumeContent partial, Set<Section> changed) {
+        return new ResumeContent(
+                pick(changed, Section.HEADER, stored.candidateName(), partial.candidateName()),
+                pick(changed, Section.HEADER, stored.location(), partial.location()),
+                pick(changed, Section.HEADER, stored.contactDetails(), partial.contactDetails()),
+                pick(changed, Section.HEADER, stored.links(), partial.links()),
+                pick(changed, Section.OBJECTIVE, stored.careerObjective(), partial.careerObjective()),
+                pick(changed, Section.SKILLS, stored.skills(), partial.skills()),
+                pick(changed, Section.EDUCATION, stored.education(), partial.education()),
+                pick(changed, Section.EXPERIENCE, stored.workExperience(), partial.workExperience()),
+                pick(changed, Section.INTERNSHIPS, stored.internships(), partial.internships()),
+                pick(changed, Section.PROJECTS, stored.projects(), partial.projects()),
+                pick(changed, Section.CERTIFICATIONS, stored.certifications(), partial.certifications()),
+                pick(changed, Section.ACHIEVEMENTS, stored.achievements(), partial.achievements()));
+    }
+
+    private static <T> T pick(Set<Section> changed, Section section, T stored, T extracted) {
+        return changed.contains(section) ? extracted : stored;
+    }
+
+    /**
+     * Times parsing of the model's JSON answer ({@code resume.json}, operation=llm_output) separately from the call itself.
+     */
+    private record ObservedOutputConverter<T>(StructuredOutputConverter<T> delegate, ObservationRegistry observationRegistry)
+            implements StructuredOutputConverter<T> {
+
+        @Override
+        public T convert(String text) {
+            return Observation.createNotStarted("resume.json", observationRegistry)
+                    .lowCardinalityKeyValue("operation", "llm_output")
+                    .observe(() -> delegate.convert(text));
+        }
+
+        @Override
+        public String getFormat() {
+            return delegate.getFormat();
+        }
     }
 
 }
@@ -0,0 +1,60 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mock-interview trial accounting. A trial is consumed with one conditional UPDATE, so concurrent
+ * starts cannot both spend the last trial and no entity has to be loaded. Users found to be out of
+ * trials are remembered for a short time so repeated attempts are rejected without a database round trip;
+ * plans and trials are granted outside this application, so the TTL is how long such a grant can go unseen.
+ */
+@Service
+public class TrialService {
+
+    private final UserRepository userRepository;
+    private final UserAccountCache userAccountCache;
+    private final long exhaustedTtlMillis;
+    private final int maxExhaustedEntries;
+    private final ConcurrentHashMap<Long, Long> exhaustedUntil = new ConcurrentHashMap<>();
+
+    public TrialService(UserRepository userRepository,
+                        UserAccountCache userAccountCache,
+                        @Value("${interview.trials.exhausted-cache-ttl:1m}") Duration exhaustedTtl,
+                        @Value("${interview.trials.exhausted-cache-max-entries:100000}") int maxExhaustedEntries) {
+        this.userRepository = userRepository;
+        this.userAccountCache = userAccountCache;
+        this.exhaustedTtlMillis = exhaustedTtl.toMillis();
+        this.maxExhaustedEntries = maxExhaustedEntries;
+    }
+
+    /**
+     * Consume one trial, or nothing for pro users.
+     * @param userId The user starting an interview
+     * @return true if the interview may start; false if the user is out of trials or does not exist
+     */
+    @Transactional
+    public boolean tryConsume(Long userId) {
+        Long until = exhaustedUntil.get(userId);
+        if (until != null) {
+            if (until > System.currentTimeMillis()) {
+                return false;
+            }
+            exhaustedUntil.remove(userId, until);
+        }
+        if (userRepository.consumeTrial(userId) == 1) {
+            userAccountCache.invalidate(userId);
+            return true;
+        }
+        if (exhaustedUntil.size() >= maxExhaustedEntries) {
+            exhaustedUntil.clear();
+        }
+        exhaustedUntil.put(userId, System.currentTimeMillis() + exhaustedTtlMillis);
+        return false;
+    }
+}
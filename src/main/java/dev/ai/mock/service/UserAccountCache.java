@@ -0,0 +1,95 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.UserAccount;
+import dev.ai.mock.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of {@link UserAccount} by user id, so resolving the caller of an authenticated request
+ * needs no query. Entries are dropped when this instance changes the user's plan or trials; the TTL bounds
+ * how long a change made on another instance can go unseen.
+ */
+@Component
+public class UserAccountCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserAccountCache(UserRepository userRepository,
+                            @Value("${user.account-cache.max-entries:10000}") int maxEntries,
+                            @Value("${user.account-cache.ttl:1m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("user.account.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.account.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * The user's account, from the cache or loaded with a single query that does not touch the resume.
+     */
+    public Optional<UserAccount> get(Long userId) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = cache.get(userId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return Optional.of(entry.account());
+        }
+        misses.increment();
+        Optional<UserAccount> account = userRepository.findAccountById(userId);
+        account.ifPresentOrElse(this::put, () -> invalidate(userId));
+        return account;
+    }
+
+    public void put(UserEntity user) {
+        put(new UserAccount(user.getId(), user.getEmail(), user.getName(), user.getProvider(), user.isPro(), user.getTrials()));
+    }
+
+    public void put(UserAccount account) {
+        lock.lock();
+        try {
+            cache.put(account.id(), new Entry(account, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop a user's entry, e.g. after their plan or trial count changed.
+     */
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            cache.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(UserAccount account, long loadedAt) {}
+}
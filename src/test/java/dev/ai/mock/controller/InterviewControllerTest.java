@@ -0,0 +1,167 @@
+package dev.ai.mock.controller;
+
+import dev.ai.mock.config.SignedCookieSecurityContextRepository;
+import dev.ai.mock.entities.ResumeJsonEntity;
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.repository.ResumeJsonRepository;
+import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.InterviewChatMemory;
+import dev.ai.mock.service.SessionTokenService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Answers are posted the way the frontend posts them, {@code JSON.stringify({ answer })}.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InterviewControllerTest {
+
+    private static final String OPENING = "Tell me about an event pipeline you built on Kafka.";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResumeJsonRepository resumeJsonRepository;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private InterviewChatMemory chatMemory;
+
+    @MockitoBean(name = "openAiChatModel")
+    private OpenAiChatModel chatModel;
+
+    private Cookie session;
+
+    @BeforeEach
+    void setUp() {
+        session = login("Client Payload");
+        when(chatModel.call(any(Prompt.class)))
+                .thenReturn(new ChatResponse(List.of(new Generation(new AssistantMessage(OPENING)))));
+    }
+
+    @Test
+    void emptyAnswerFromTheClientIsScoredEmpty() throws Exception {
+        String sessionId = start();
+
+        respond(sessionId, "{\"answer\":\"\"}")
+                .andExpect(jsonPath("$.question").value("I didn't get an answer there. Let's try again: " + OPENING));
+
+        mockMvc.perform(get("/api/interview/scores").header(InterviewController.SESSION_HEADER, sessionId).cookie(session))
+                .andExpect(jsonPath("$[0].verdict").value("EMPTY"))
+                .andExpect(jsonPath("$[0].words").value(0));
+        // The opening only: the follow-up was templated
+        verify(chatModel, times(1)).call(any(Prompt.class));
+    }
+
+    @Test
+    void nonAnswerFromTheClientIsScoredAsSuchAndRememberedAsText() throws Exception {
+        String sessionId = start();
+
+        respond(sessionId, "{\"answer\": \"idk\"}");
+
+        mockMvc.perform(get("/api/interview/scores").header(InterviewController.SESSION_HEADER, sessionId).cookie(session))
+                .andExpect(jsonPath("$[0].verdict").value("NON_ANSWER"))
+                .andExpect(jsonPath("$[0].words").value(1));
+        List<Message> history = chatMemory.get(sessionId);
+        Message answer = history.get(history.size() - 2);
+        assertEquals(MessageType.USER, answer.getMessageType());
+        assertEquals("idk", answer.getText());
+    }
+
+    @Test
+    void anotherUsersSessionIsNotFound() throws Exception {
+        String sessionId = start();
+        Cookie other = login("Someone Else");
+
+        mockMvc.perform(post("/api/interview/respond")
+                        .header(InterviewController.SESSION_HEADER, sessionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"answer\":\"idk\"}")
+                        .cookie(other))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/interview/end").header(InterviewController.SESSION_HEADER, sessionId).cookie(other))
+                .andExpect(status().isNotFound());
+
+        assertTrue(chatMemory.contains(sessionId));
+        mockMvc.perform(post("/api/interview/end").header(InterviewController.SESSION_HEADER, sessionId).cookie(session))
+                .andExpect(status().isNoContent());
+        assertFalse(chatMemory.contains(sessionId));
+    }
+
+    /**
+     * A user with a resume, and their session cookie.
+     */
+    private Cookie login(String name) {
+        String email = "user" + System.nanoTime() + "@example.com";
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setName(name);
+        user.setTrials(5);
+        Long userId = userRepository.save(user).getId();
+
+        ResumeJsonEntity resume = new ResumeJsonEntity();
+        resume.setUser(user);
+        resume.setResumeJson(new ResumeContent(name, null, List.of(), List.of(), "Backend engineer",
+                List.of("Java", "Kafka"), List.of(), List.of(), List.of(), List.of(), List.of(), List.of()));
+        resumeJsonRepository.save(resume);
+        return new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME,
+                sessionTokenService.issue(userId, email, List.of("USER")));
+    }
+
+    private String start() throws Exception {
+        return mockMvc.perform(get("/api/interview/start")
+                        .param("jobRole", "Backend Engineer")
+                        .param("company", "Acme")
+                        .cookie(session))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(InterviewController.SESSION_HEADER);
+    }
+
+    private ResultActions respond(String sessionId, String body) throws Exception {
+        return mockMvc.perform(post("/api/interview/respond")
+                        .header(InterviewController.SESSION_HEADER, sessionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .cookie(session))
+                .andExpect(status().isOk());
+    }
+}
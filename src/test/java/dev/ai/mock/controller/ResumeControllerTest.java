@@ -0,0 +1,92 @@
+package dev.ai.mock.controller;
+
+import dev.ai.mock.config.SignedCookieSecurityContextRepository;
+import dev.ai.mock.entities.ResumeJsonEntity;
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.repository.ResumeJsonRepository;
+import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.SessionTokenService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResumeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResumeJsonRepository resumeJsonRepository;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @MockitoBean(name = "openAiChatModel")
+    private OpenAiChatModel chatModel;
+
+    @Test
+    void resumeIsLookedUpByOwnerNotByResumeId() throws Exception {
+        // A user without a resume, then other users' resumes until one of them gets that user's id as its
+        // resume id: a lookup by primary key would hand that resume to the wrong user
+        UserEntity withoutResume = user("Without Resume");
+        UserEntity owner;
+        ResumeJsonEntity ownersResume;
+        int attempts = 0;
+        do {
+            assertTrue(++attempts < 1000, "resume ids never reached the user id");
+            owner = user("Owner " + attempts);
+            ownersResume = new ResumeJsonEntity();
+            ownersResume.setUser(owner);
+            ownersResume.setResumeJson(resume(owner.getName()));
+            ownersResume = resumeJsonRepository.save(ownersResume);
+        } while (ownersResume.getId() < withoutResume.getId());
+        assertEquals(withoutResume.getId(), ownersResume.getId());
+        assertNotEquals(owner.getId(), ownersResume.getId());
+
+        mockMvc.perform(get("/api/resume").cookie(login(withoutResume)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/resume").cookie(login(owner)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.candidate_name").value(owner.getName()));
+    }
+
+    private UserEntity user(String name) {
+        UserEntity user = new UserEntity();
+        user.setEmail("user" + System.nanoTime() + "@example.com");
+        user.setName(name);
+        user.setTrials(5);
+        return userRepository.save(user);
+    }
+
+    private Cookie login(UserEntity user) {
+        return new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME,
+                sessionTokenService.issue(user.getId(), user.getEmail(), List.of("USER")));
+    }
+
+    private static ResumeContent resume(String name) {
+        return new ResumeContent(name, "Berlin", List.of(), List.of(), "Backend engineer", List.of("Java"),
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,146 @@
+package dev.ai.mock.controller;
+
+import dev.ai.mock.config.SignedCookieSecurityContextRepository;
+import dev.ai.mock.entities.ResumeJsonEntity;
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.repository.ResumeJsonRepository;
+import dev.ai.mock.repository.UserRepository;
+import dev.ai.mock.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each user-facing path issues, so a mapping change that starts
+ * dragging the resume document into user lookups (or adds a query per request) fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResumeJsonRepository resumeJsonRepository;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean(name = "openAiChatModel")
+    private OpenAiChatModel chatModel;
+
+    private Statistics statistics;
+    private Long userId;
+    private Cookie session;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String email = "user" + System.nanoTime() + "@example.com";
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setName("Statement Count");
+        user.setTrials(5);
+        userId = userRepository.save(user).getId();
+
+        ResumeJsonEntity resume = new ResumeJsonEntity();
+        resume.setUser(user);
+        resume.setResumeJson(resume("Statement Count"));
+        resumeJsonRepository.save(resume);
+
+        session = new Cookie(SignedCookieSecurityContextRepository.COOKIE_NAME,
+                sessionTokenService.issue(userId, email, List.of("USER")));
+    }
+
+    @Test
+    void meLoadsOnlyTheAccountAndThenServesItFromTheCache() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(userId))
+                .andExpect(jsonPath("$.resume").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/me").cookie(session)).andExpect(status().isOk());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loginLookupByEmailDoesNotReadTheResume() {
+        String email = userRepository.findById(userId).orElseThrow().getEmail();
+
+        statistics.clear();
+        userRepository.findByEmail(email).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void startInterviewSpendsATrialAndReadsOnlyTheResumeDocument() throws Exception {
+        when(chatModel.call(any(Prompt.class)))
+                .thenReturn(new ChatResponse(List.of(new Generation(new AssistantMessage("Tell me about yourself.")))));
+
+        statistics.clear();
+        mockMvc.perform(get("/api/interview/start")
+                        .param("jobRole", "Backend Engineer")
+                        .param("company", "Acme")
+                        .cookie(session))
+                .andExpect(status().isOk());
+        // UPDATE users (trial) + SELECT resume_json
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void saveResumeUpdatesInPlaceWithoutLoadingTheUser() throws Exception {
+        statistics.clear();
+        mockMvc.perform(post("/api/resume/save")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"candidate_name\":\"Renamed\",\"skills\":[\"Kafka\"]}")
+                        .cookie(session))
+                .andExpect(status().isOk());
+        // SELECT resume by user id + UPDATE resumes
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private static ResumeContent resume(String name) {
+        return new ResumeContent(name, "Berlin", List.of(), List.of(), "Backend engineer", List.of("Java", "Spring"),
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
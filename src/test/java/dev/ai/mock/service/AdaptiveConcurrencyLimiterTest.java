@@ -0,0 +1,73 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.service.AdaptiveConcurrencyLimiter.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void limitGrowsOnSuccessOnlyWhileItIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(Outcome.SUCCESS);
+        }
+        assertEquals(4, limiter.limit());
+
+        for (int round = 0; round < 20; round++) {
+            int permits = 0;
+            while (limiter.tryAcquire()) {
+                permits++;
+            }
+            for (int i = 0; i < permits; i++) {
+                limiter.release(Outcome.SUCCESS);
+            }
+        }
+        assertTrue(limiter.limit() > 4, String.valueOf(limiter.limit()));
+        assertTrue(limiter.limit() <= 10, String.valueOf(limiter.limit()));
+    }
+
+    @Test
+    void overloadCutsTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 2, 256, 0.5);
+        for (int expected : new int[]{8, 4, 2, 2}) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(Outcome.OVERLOADED);
+            assertEquals(expected, limiter.limit());
+        }
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(Outcome.IGNORED);
+        assertEquals(2, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void callerOverTheLimitWaitsForAReleaseUntilItsDeadline() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.acquire(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20)));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(20);
+        assertFalse(waiter.isDone());
+        limiter.release(Outcome.SUCCESS);
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.inFlight());
+    }
+}
@@ -0,0 +1,93 @@
+package dev.ai.mock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.ai.mock.records.AnswerScore;
+import dev.ai.mock.records.AnswerScore.Verdict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerPreScorerTest {
+
+    private static final String QUESTION = "How did you scale the Kafka consumers at Acme?";
+
+    private final AnswerPreScorer scorer = new AnswerPreScorer(
+            new StaticListableBeanFactory(Map.of("embeddingModel", new BagOfWordsEmbeddingModel()))
+                    .getBeanProvider(EmbeddingModel.class),
+            new ObjectMapper(), true, 3, 0.1, 0.9, new SimpleMeterRegistry());
+
+    @Test
+    void trivialAnswersAreHandledLocally() {
+        assertEquals(Verdict.EMPTY, score("  \n ").verdict());
+        assertEquals(Verdict.NON_ANSWER, score("I don't know.").verdict());
+        assertEquals(Verdict.TOO_SHORT, score("Yes").verdict());
+        assertEquals(Verdict.OFF_TOPIC, score("My favourite holiday destination is Lisbon in spring.").verdict());
+
+        AnswerScore repeat = scorer.score(2, QUESTION, List.of("We added partitions and more consumer instances."),
+                "We added more partitions and consumer instances", true);
+        assertEquals(Verdict.REPEAT, repeat.verdict());
+        assertTrue(repeat.handledLocally());
+        assertTrue(scorer.followUp(repeat, QUESTION).isPresent());
+    }
+
+    @Test
+    void relevantAnswersGoToTheModel() {
+        AnswerScore score = score("We added partitions to the topic and ran more consumer instances in the group.");
+        assertEquals(Verdict.OK, score.verdict());
+        assertFalse(score.handledLocally());
+        assertTrue(score.lexicalOverlap() > 0);
+        assertTrue(scorer.followUp(score, QUESTION).isEmpty());
+    }
+
+    @Test
+    void onlyOneTemplatedFollowUpInARow() {
+        AnswerScore score = scorer.score(2, QUESTION, List.of(), "idk", false);
+        assertEquals(Verdict.NON_ANSWER, score.verdict());
+        assertFalse(score.handledLocally());
+    }
+
+    @Test
+    void questionIsReadFromStructuredOutput() {
+        assertEquals(QUESTION, scorer.questionText("{\"question\": \"" + QUESTION + "\"}"));
+        assertEquals(QUESTION, scorer.questionText(QUESTION));
+    }
+
+    private AnswerScore score(String answer) {
+        return scorer.score(1, QUESTION, List.of(), answer, true);
+    }
+
+    /** Hashes words into buckets: texts sharing no words are orthogonal. */
+    private static final class BagOfWordsEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                float[] vector = new float[384];
+                for (String word : AnswerPreScorer.contentWords(text)) {
+                    vector[Math.floorMod(word.hashCode(), vector.length)] += 1;
+                }
+                embeddings.add(new Embedding(vector, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.CandidateMatch;
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import dev.ai.mock.repository.ResumeJsonRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CandidateSearchIndexTest {
+
+    private final ResumeJsonRepository repository = mock(ResumeJsonRepository.class);
+    private final CandidateSearchIndex index = new CandidateSearchIndex(repository, true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void tokensKeepTechnologyPunctuation() {
+        assertEquals(Set.of("c++", "c#", "node.js", "spring", "boot"),
+                CandidateSearchIndex.tokens("C++, C#, Node.js and Spring Boot."));
+        assertEquals(Set.of(), CandidateSearchIndex.tokens(null));
+    }
+
+    @Test
+    void experienceYearsCountsOverlappingRangesOnce() {
+        assertEquals(4.0, CandidateSearchIndex.experienceYears(List.of(
+                work("Engineer", "2017 – 2020"),
+                work("Consultant", "2019 to 2021"))), 1e-9);
+        assertEquals(23 / 12.0, CandidateSearchIndex.experienceYears(List.of(work("Engineer", "Jan 2019 - Dec 2020"))), 1e-9);
+        assertEquals(2.25, CandidateSearchIndex.experienceYears(List.of(work("Engineer", "2 years 3 months"))), 1e-9);
+
+        YearMonth now = YearMonth.now();
+        assertEquals((12 + now.getMonthValue() - 1) / 12.0, CandidateSearchIndex.experienceYears(
+                List.of(work("Engineer", "Jan " + (now.getYear() - 1) + " - Present"))), 1e-9);
+        assertEquals(0, CandidateSearchIndex.experienceYears(List.of(work("Engineer", "unknown"))));
+    }
+
+    @Test
+    void searchMatchesEveryTermAndRanksSkillsFirst() {
+        index.index(1L, resume("Ada", List.of("Kafka", "Spring"), "", List.of(work("Engineer", "2015 - 2020"))));
+        index.index(2L, resume("Ben", List.of("Spring"), "Kafka Streams", List.of(work("Engineer", "2018 - 2020"))));
+        index.index(3L, resume("Cy", List.of("React"), "", List.of(work("Kafka Engineer", "2019 - 2020"))));
+
+        assertEquals(List.of(1L, 2L), userIds(index.search("kafka + spring", 10)));
+        assertEquals(List.of(1L, 2L, 3L), userIds(index.search("Kafka", 10)));
+        assertEquals(List.of(), index.search("cobol", 10));
+    }
+
+    @Test
+    void yearsClauseIsAMinimumOnExperience() {
+        index.index(1L, resume("Ada", List.of("Kafka"), "", List.of(work("Engineer", "2015 - 2020"))));
+        index.index(2L, resume("Ben", List.of("Kafka"), "", List.of(work("Engineer", "2018 - 2020"))));
+
+        assertEquals(List.of(1L), userIds(index.search("Kafka, 3+ years", 10)));
+        assertEquals(List.of(1L), userIds(index.search("kafka 3 yrs of experience", 10)));
+        // Only a years clause: everyone above the minimum, most experienced first
+        assertEquals(List.of(1L, 2L), userIds(index.search("1+ years", 10)));
+    }
+
+    @Test
+    void reindexingReplacesAndCompactsDeadEntries() {
+        index.index(1L, resume("Ada", List.of("Kafka"), "", List.of()));
+        index.index(2L, resume("Ben", List.of("Spring"), "", List.of()));
+        // Enough dead entries to trigger compaction; the last version of user 1 lists Spring
+        for (int i = 0; i < 1100; i++) {
+            index.index(1L, resume("Ada", List.of(i % 2 == 0 ? "Kafka" : "Spring"), "", List.of()));
+        }
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(), index.search("kafka", 10));
+        assertEquals(Set.of(1L, 2L), Set.copyOf(userIds(index.search("spring", 10))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildDoesNotReplayARowOverANewerSave() {
+        doAnswer(invocation -> {
+            BiConsumer<Long, ResumeContent> consumer = invocation.getArgument(0);
+            // A save lands after the rebuild read user 1's row but before it was replayed
+            index.index(1L, resume("Ada", List.of("Rust"), "", List.of()));
+            consumer.accept(1L, resume("Ada", List.of("Kafka"), "", List.of()));
+            consumer.accept(2L, resume("Ben", List.of("Kafka"), "", List.of()));
+            return null;
+        }).when(repository).forEachResume(any(BiConsumer.class));
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), userIds(index.search("rust", 10)));
+        assertEquals(List.of(2L), userIds(index.search("kafka", 10)));
+
+        // Once the rebuild is over, saves replace entries as usual
+        index.index(1L, resume("Ada", List.of("Kafka"), "", List.of()));
+        assertTrue(userIds(index.search("kafka", 10)).contains(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void catchUpIndexesResumesSavedElsewhereSinceTheLastRead() {
+        index.catchUp();
+        verify(repository, never()).forEachResumeUpdatedSince(any(), any(BiConsumer.class));
+
+        Instant beforeRebuild = Instant.now();
+        index.rebuild();
+        doAnswer(invocation -> {
+            BiConsumer<Long, ResumeContent> consumer = invocation.getArgument(1);
+            // Saved here while the catch-up runs, after it read the older row saved through another instance
+            index.index(1L, resume("Ada", List.of("Rust"), "", List.of()));
+            consumer.accept(1L, resume("Ada", List.of("Kafka"), "", List.of()));
+            consumer.accept(2L, resume("Ben", List.of("Kafka"), "", List.of()));
+            return null;
+        }).when(repository).forEachResumeUpdatedSince(any(), any(BiConsumer.class));
+
+        index.catchUp();
+
+        // Read back from the start of the rebuild, less the overlap
+        verify(repository).forEachResumeUpdatedSince(
+                argThat(since -> !since.isBefore(beforeRebuild.minus(Duration.ofMinutes(1)))
+                        && since.isBefore(beforeRebuild)), any(BiConsumer.class));
+        assertEquals(List.of(1L), userIds(index.search("rust", 10)));
+        assertEquals(List.of(2L), userIds(index.search("kafka", 10)));
+    }
+
+    private static List<Long> userIds(List<CandidateMatch> matches) {
+        return matches.stream().map(CandidateMatch::userId).toList();
+    }
+
+    private static WorkExperience work(String role, String duration) {
+        return new WorkExperience(role, "Acme", duration, null, null);
+    }
+
+    private static ResumeContent resume(String name, List<String> skills, String technologies, List<WorkExperience> work) {
+        return new ResumeContent(name, null, List.of(), List.of(), null, skills, List.of(), work, List.of(),
+                List.of(new Project("Project", null, technologies)), List.of(), List.of());
+    }
+}
@@ -0,0 +1,102 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.service.InterviewMessageStore.StoredMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two {@link InterviewChatMemory} instances over one store stand in for two application nodes
+ * behind a load balancer without sticky sessions.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "interview.memory.store.enabled=true"
+})
+@ActiveProfiles("test")
+class InterviewMessageStoreTest {
+
+    @Autowired
+    private InterviewMessageStore store;
+
+    @Test
+    void anotherNodePicksUpAndContinuesTheConversation() throws Exception {
+        InterviewChatMemory nodeA = node();
+        InterviewChatMemory nodeB = node();
+        String conversationId = "1:" + System.nanoTime();
+
+        nodeA.begin(conversationId);
+        nodeA.add(conversationId, List.of(new SystemMessage("setup"), new UserMessage("start"),
+                new AssistantMessage("Tell me about yourself.")));
+        awaitStored(conversationId, 3);
+
+        // Cold on B: read back in order
+        assertTrue(nodeB.contains(conversationId));
+        assertEquals(List.of("setup", "start", "Tell me about yourself."), texts(nodeB.get(conversationId)));
+
+        nodeB.add(conversationId, List.of(new UserMessage("answer"), new AssistantMessage("next question")));
+        awaitStored(conversationId, 5);
+
+        // Hot on A but behind: the max-seq check brings it up to date
+        assertEquals(List.of("setup", "start", "Tell me about yourself.", "answer", "next question"),
+                texts(nodeA.get(conversationId)));
+
+        nodeA.clear(conversationId);
+        awaitStored(conversationId, 0);
+        assertFalse(node().contains(conversationId));
+    }
+
+    @Test
+    void nodeThatLostATurnReloadsTheConversation() throws Exception {
+        InterviewChatMemory nodeA = node();
+        InterviewChatMemory nodeB = node();
+        String conversationId = "2:" + System.nanoTime();
+
+        nodeA.begin(conversationId);
+        nodeA.add(conversationId, List.of(new SystemMessage("setup"), new AssistantMessage("Tell me about yourself.")));
+        awaitStored(conversationId, 2);
+        assertEquals(2, nodeB.get(conversationId).size());
+
+        // Both nodes answer the same turn; B's write lands first and A's rows are skipped
+        nodeB.add(conversationId, List.of(new UserMessage("answer on B"), new AssistantMessage("question from B")));
+        awaitStored(conversationId, 4);
+        nodeA.add(conversationId, List.of(new UserMessage("answer on A"), new AssistantMessage("question from A")));
+
+        List<String> expected = List.of("setup", "Tell me about yourself.", "answer on B", "question from B");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!texts(nodeA.get(conversationId)).equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, texts(nodeA.get(conversationId)));
+        assertEquals(expected, texts(store.load(conversationId).stream().map(StoredMessage::message).toList()));
+    }
+
+    private InterviewChatMemory node() {
+        return new InterviewChatMemory(20, 3000, Duration.ofMinutes(30), 100, true, store, new SimpleMeterRegistry());
+    }
+
+    private void awaitStored(String conversationId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (store.load(conversationId).size() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, store.load(conversationId).size());
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+}
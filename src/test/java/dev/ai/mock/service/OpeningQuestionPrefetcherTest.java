@@ -0,0 +1,56 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.service.OpeningQuestionPrefetcher.Opening;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpeningQuestionPrefetcherTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Callable<Opening> GENERATOR = () -> new Opening("prompt", "Tell me about yourself.");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void supersedesBeyondTheLimitStartNothing() throws Exception {
+        OpeningQuestionPrefetcher prefetcher = prefetcher(Duration.ofMinutes(1));
+
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Acme", GENERATOR));
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Globex", GENERATOR));
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Initech", GENERATOR));
+        // Repeating the current choice is not a supersede
+        assertTrue(prefetcher.prefetch(USER_ID, "backend engineer ", "Initech", GENERATOR));
+        assertFalse(prefetcher.prefetch(USER_ID, "Backend Engineer", "Umbrella", GENERATOR));
+
+        assertEquals(1, meterRegistry.get("interview.prefetch.throttled").counter().count());
+        assertEquals(2, meterRegistry.get("interview.prefetch.wasted").tag("reason", "superseded").counter().count());
+        // The last prefetch that was started is still there to be claimed
+        assertEquals("Tell me about yourself.",
+                prefetcher.take(USER_ID, "Backend Engineer", "Initech").orElseThrow().get().question());
+    }
+
+    @Test
+    void limitResetsOnceTheWindowHasPassed() throws Exception {
+        OpeningQuestionPrefetcher prefetcher = prefetcher(Duration.ofMillis(50));
+
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Acme", GENERATOR));
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Globex", GENERATOR));
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Initech", GENERATOR));
+        Thread.sleep(100);
+
+        assertTrue(prefetcher.prefetch(USER_ID, "Backend Engineer", "Umbrella", GENERATOR));
+    }
+
+    private OpeningQuestionPrefetcher prefetcher(Duration supersedeWindow) {
+        return new OpeningQuestionPrefetcher(true, Duration.ofMinutes(5), 100, 4, 2, supersedeWindow,
+                new StandardEnvironment(), meterRegistry);
+    }
+}
@@ -0,0 +1,212 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientChatModelTest {
+
+    private static final Prompt PROMPT = new Prompt("Tell me about yourself.");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeChatModel delegate = new FakeChatModel();
+
+    @Test
+    void identicalPromptsInFlightShareOneCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        delegate.call = prompt -> {
+            started.countDown();
+            await(answer);
+            return response("Walk me through your last project.");
+        };
+        ResilientChatModel model = model(16, 16, true, false);
+
+        CompletableFuture<ChatResponse> leader = CompletableFuture.supplyAsync(() -> model.call(PROMPT));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ChatResponse> follower = CompletableFuture.supplyAsync(() -> model.call(PROMPT));
+        awaitTrue(() -> count("coalesced") == 1);
+        answer.countDown();
+
+        assertEquals("Walk me through your last project.", text(leader.get(5, TimeUnit.SECONDS)));
+        assertEquals("Walk me through your last project.", text(follower.get(5, TimeUnit.SECONDS)));
+        assertEquals(1, delegate.calls.get());
+        awaitTrue(() -> inFlight() == 0);
+    }
+
+    @Test
+    void hedgeRacesASlowAttemptAndTheLoserIsCancelled() throws Exception {
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+        delegate.call = prompt -> {
+            if (delegate.calls.get() == 1) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                }
+                throw new IllegalStateException("cancelled");
+            }
+            return response("Hedged answer");
+        };
+        ResilientChatModel model = model(16, 16, false, true);
+
+        assertEquals("Hedged answer", text(model.call(PROMPT)));
+        assertTrue(loserInterrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, count("hedged"));
+        assertEquals(1, count("hedge_won"));
+        awaitTrue(() -> inFlight() == 0);
+    }
+
+    @Test
+    void overloadedCallCutsTheLimitAndGivesThePermitBack() {
+        delegate.call = prompt -> {
+            throw new TransientAiException("429 Too Many Requests");
+        };
+        ResilientChatModel model = model(16, 256, false, false);
+
+        assertThrows(LlmUnavailableException.class, () -> model.call(PROMPT));
+        // The attempt gives its permit back just after failing the call
+        awaitTrue(() -> inFlight() == 0);
+        assertEquals(8, limit());
+
+        delegate.call = prompt -> {
+            throw new IllegalArgumentException("bad request");
+        };
+        assertThrows(IllegalArgumentException.class, () -> model.call(PROMPT));
+        awaitTrue(() -> inFlight() == 0);
+        assertEquals(8, limit());
+    }
+
+    @Test
+    void streamPermitComesBackOnCancel() {
+        delegate.stream = prompt -> Flux.never();
+        ResilientChatModel model = model(16, 16, false, false);
+
+        Disposable subscription = model.stream(PROMPT).subscribe();
+        awaitTrue(() -> inFlight() == 1);
+        subscription.dispose();
+
+        awaitTrue(() -> inFlight() == 0);
+        assertEquals(1, count("cancelled"));
+    }
+
+    @Test
+    void streamCancelledWhileWaitingForAPermitDoesNotKeepIt() throws InterruptedException {
+        delegate.stream = prompt -> Flux.never();
+        ResilientChatModel model = model(1, 1, false, false);
+
+        Disposable holder = model.stream(PROMPT).subscribe();
+        awaitTrue(() -> inFlight() == 1);
+        Disposable waiter = model.stream(PROMPT).subscribe();
+        Thread.sleep(50);
+        waiter.dispose();
+        holder.dispose();
+
+        awaitTrue(() -> inFlight() == 0);
+        Thread.sleep(50);
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void streamPermitComesBackOnError() {
+        delegate.stream = prompt -> Flux.error(new TransientAiException("503 Service Unavailable"));
+        ResilientChatModel model = model(16, 256, false, false);
+
+        assertThrows(TransientAiException.class, () -> model.stream(PROMPT).blockLast());
+        awaitTrue(() -> inFlight() == 0);
+        assertEquals(8, limit());
+
+        // Starting the model stream throws instead of returning a failed Flux
+        delegate.stream = prompt -> {
+            throw new IllegalStateException("no connection");
+        };
+        assertThrows(IllegalStateException.class, () -> model.stream(PROMPT).blockLast());
+        awaitTrue(() -> inFlight() == 0);
+        assertEquals(8, limit());
+    }
+
+    private ResilientChatModel model(int initialLimit, int maxLimit, boolean coalesce, boolean hedge) {
+        return new ResilientChatModel(delegate, new SimpleAsyncTaskExecutor("llm-test-"),
+                new ResilientChatModel.Settings(Duration.ofSeconds(5), 1, Duration.ofMillis(10), Duration.ofMillis(10),
+                        initialLimit, 1, maxLimit, 0.5, coalesce, hedge, Duration.ofMillis(50)),
+                meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("llm.concurrency.in_flight").tag("model", "default").gauge().value();
+    }
+
+    private double limit() {
+        return meterRegistry.get("llm.concurrency.limit").tag("model", "default").gauge().value();
+    }
+
+    private double count(String outcome) {
+        var counter = meterRegistry.find("llm.calls").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    private static final class FakeChatModel implements ChatModel {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Function<Prompt, ChatResponse> call = prompt -> response("");
+        volatile Function<Prompt, Flux<ChatResponse>> stream = prompt -> Flux.empty();
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            return call.apply(prompt);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return stream.apply(prompt);
+        }
+    }
+}
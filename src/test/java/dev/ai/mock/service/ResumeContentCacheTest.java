@@ -0,0 +1,35 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.ResumeContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResumeContentCacheTest {
+
+    private static final ResumeContent RESUME = new ResumeContent("Jane Doe", "Berlin", List.of(), List.of(),
+            "Backend engineer", List.of("Java"), List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+
+    @Test
+    void entryIsServedUntilItIsOlderThanTheTtl() throws InterruptedException {
+        ResumeContentCache cache = new ResumeContentCache(10, Duration.ofMillis(50), new SimpleMeterRegistry());
+        cache.put(1L, RESUME);
+        assertEquals(Optional.of(RESUME), cache.get(1L));
+
+        Thread.sleep(60);
+        assertEquals(Optional.empty(), cache.get(1L));
+    }
+
+    @Test
+    void invalidatedEntryIsGone() {
+        ResumeContentCache cache = new ResumeContentCache(10, Duration.ofHours(1), new SimpleMeterRegistry());
+        cache.put(1L, RESUME);
+        cache.invalidate(1L);
+        assertEquals(Optional.empty(), cache.get(1L));
+    }
+}
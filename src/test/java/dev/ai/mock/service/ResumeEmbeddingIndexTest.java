@@ -0,0 +1,68 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.ResumeSection;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResumeEmbeddingIndexTest {
+
+    private final CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+    private final ResumeEmbeddingIndex index = new ResumeEmbeddingIndex(
+            new StaticListableBeanFactory(Map.of("embeddingModel", embeddingModel)).getBeanProvider(EmbeddingModel.class),
+            100);
+
+    @Test
+    void sectionsAreEmbeddedOncePerResumeVersion() {
+        ResumeContent original = resume(List.of("Java", "Kafka"));
+        index.index(1L, original);
+        index.rank(1L, original, "Backend Engineer at Acme");
+        index.rank(1L, resume(List.of("Java", "Kafka")), "Backend Engineer at Acme");
+        assertEquals(1, embeddingModel.sectionBatches);
+
+        // Saved through another instance: no local invalidation, but the new skills must be ranked
+        List<ResumeSection> ranked = index.rank(1L, resume(List.of("Go", "Postgres")), "Backend Engineer at Acme");
+        assertEquals(List.of("Go", "Postgres"), ranked.stream().map(ResumeSection::text).sorted().toList());
+        assertEquals(2, embeddingModel.sectionBatches);
+    }
+
+    private static ResumeContent resume(List<String> skills) {
+        return new ResumeContent("Jane Doe", "Berlin", List.of(), List.of(), "Backend engineer", skills,
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    private static final class CountingEmbeddingModel implements EmbeddingModel {
+
+        int sectionBatches;
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            if (request.getInstructions().size() > 1) {
+                sectionBatches++;
+            }
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                float[] vector = new float[8];
+                vector[Math.floorMod(text.hashCode(), vector.length)] = 1;
+                embeddings.add(new Embedding(vector, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.ResumeJob;
+import dev.ai.mock.repository.ResumeJobRepository;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two {@link ResumeIngestionService} instances over one database stand in for two application nodes:
+ * the upload is accepted by one and polled on the other.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@ActiveProfiles("test")
+class ResumeIngestionServiceTest {
+
+    @Autowired
+    private PdfParserService pdfParserService;
+
+    @Autowired
+    private StructuredResumeParse structuredResumeParse;
+
+    @Autowired
+    private ResumeJobRepository jobs;
+
+    @Test
+    void jobStateIsVisibleFromAnotherNode() throws Exception {
+        ResumeIngestionService nodeA = node(Duration.ofHours(1));
+        ResumeIngestionService nodeB = node(Duration.ofHours(1));
+        Path notAPdf = Files.createTempFile("resume-job-", ".pdf");
+        Files.writeString(notAPdf, "not a pdf", StandardCharsets.UTF_8);
+
+        ResumeJob job = nodeA.submit(7L, notAPdf);
+
+        ResumeJob polled = nodeB.getJob(job.id()).orElseThrow();
+        assertEquals(ResumeJob.Status.FAILED, polled.status());
+        assertEquals(7L, polled.userId());
+        assertFalse(Files.exists(notAPdf));
+        assertEquals(Optional.empty(), nodeB.getJob("unknown"));
+    }
+
+    @Test
+    void jobsAreDroppedOnceTheTtlHasPassed() throws Exception {
+        ResumeIngestionService node = node(Duration.ZERO);
+        Path notAPdf = Files.createTempFile("resume-job-", ".pdf");
+        ResumeJob job = node.submit(7L, notAPdf);
+        assertTrue(node.getJob(job.id()).isPresent());
+
+        Thread.sleep(10);
+        node.evictFinishedJobs();
+
+        assertTrue(node.getJob(job.id()).isEmpty());
+    }
+
+    /** Runs jobs on the caller's thread, so a submitted job is finished when submit returns. */
+    private ResumeIngestionService node(Duration jobTtl) {
+        AsyncTaskExecutor executor = new TaskExecutorAdapter(new SyncTaskExecutor());
+        return new ResumeIngestionService(pdfParserService, structuredResumeParse, executor, jobTtl, jobs,
+                ObservationRegistry.NOOP);
+    }
+}
@@ -0,0 +1,94 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.records.Education;
+import dev.ai.mock.records.Project;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumePromptAssemblerTest {
+
+    private static final PromptTokenCounter TOKEN_COUNTER = new PromptTokenCounter(new DefaultResourceLoader(),
+            "classpath:/onnx/all-MiniLM-L6-v2/tokenizer.json");
+    // Without an embedding model sections are ranked in resume order
+    private static final ResumeEmbeddingIndex INDEX = new ResumeEmbeddingIndex(
+            new StaticListableBeanFactory().getBeanProvider(EmbeddingModel.class), 100);
+
+    @Test
+    void contactDetailsLinksAndEmptyFieldsAreDropped() {
+        ResumeContent resume = new ResumeContent("Jane Doe", "Berlin", List.of("jane@example.com", "+49 151 0000"),
+                List.of("https://github.com/jane"), " ", Arrays.asList("Java", "", null, "Kafka"),
+                List.of(), List.of(new WorkExperience("Engineer", "Acme", "2019 - Present", null, "Built the billing pipeline")),
+                List.of(), List.of(), null, List.of(""));
+
+        String digest = assembler(600, 300).digest(1L, resume, "Backend Engineer", "Initech");
+
+        assertEquals("""
+                Candidate: Jane Doe
+                Skills: Java, Kafka
+                Experience:
+                - Engineer | Acme | 2019 - Present | Built the billing pipeline""", digest);
+    }
+
+    @Test
+    void longTextIsTruncatedAtAWordWithAnEllipsis() {
+        String description = "Designed and operated an event sourced ledger ".repeat(10);
+        ResumeContent resume = resume(List.of("Java"), List.of(new Project("Ledger", description, "Kafka")));
+
+        String digest = assembler(600, 80).digest(1L, resume, "Backend Engineer", "Initech");
+
+        String project = digest.lines().filter(line -> line.startsWith("- Ledger")).findFirst().orElseThrow();
+        assertTrue(project.endsWith("..."), project);
+        assertTrue(project.length() <= "- ".length() + 80 + "...".length(), project);
+        assertFalse(project.contains("  "), project);
+    }
+
+    @Test
+    void digestStaysWithinTheTokenBudget() {
+        List<String> skills = new ArrayList<>();
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            skills.add("Skill" + i);
+            projects.add(new Project("Project " + i, "Shipped feature " + i + " to production with a small team", "Java, Kafka"));
+        }
+        ResumeContent resume = resume(skills, projects);
+
+        for (int budget : new int[]{20, 60, 150, 400}) {
+            String digest = assembler(budget, 300).digest(1L, resume, "Backend Engineer", "Initech");
+            assertTrue(TOKEN_COUNTER.count(digest) <= budget, budget + ": " + TOKEN_COUNTER.count(digest));
+            // The budget, not the resume, is what ends the digest
+            assertFalse(digest.contains("Project 39"), digest);
+        }
+    }
+
+    @Test
+    void sameResumeAndRoleGiveTheSameDigest() {
+        ResumeContent resume = resume(List.of("Java", "Kafka", "Postgres"),
+                List.of(new Project("Ledger", "Event sourced ledger", "Kafka"), new Project("Search", "Candidate search", "Java")));
+        ResumePromptAssembler assembler = assembler(60, 300);
+
+        assertEquals(assembler.digest(1L, resume, "Backend Engineer", "Initech"),
+                assembler.digest(1L, resume, "Backend Engineer", "Initech"));
+    }
+
+    private static ResumePromptAssembler assembler(int tokenBudget, int maxTextChars) {
+        return new ResumePromptAssembler(INDEX, TOKEN_COUNTER, tokenBudget, maxTextChars);
+    }
+
+    private static ResumeContent resume(List<String> skills, List<Project> projects) {
+        return new ResumeContent("Jane Doe", "Berlin", List.of("jane@example.com"), List.of(), "Backend engineer",
+                skills, List.of(new Education("BSc Computer Science", "TU Berlin", "2015 - 2019", "Berlin")),
+                List.of(), List.of(), projects, List.of(), List.of());
+    }
+}
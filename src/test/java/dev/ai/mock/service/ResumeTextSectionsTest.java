@@ -0,0 +1,73 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.service.ResumeTextSections.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeTextSectionsTest {
+
+    @Test
+    void headingsAreRecognisedRegardlessOfCaseAndPunctuation() {
+        Map<Section, String> sections = ResumeTextSections.split("""
+                Jane Doe
+                jane@example.com
+
+                PROFESSIONAL SUMMARY:
+                Backend engineer.
+                Technical Skills
+                Java, Kafka
+                -- Work Experience --
+                Engineer at Acme, 2019 - Present
+                Licenses & Certifications
+                AWS Solutions Architect
+                """);
+
+        assertEquals(List.of(Section.HEADER, Section.OBJECTIVE, Section.SKILLS, Section.EXPERIENCE, Section.CERTIFICATIONS),
+                List.copyOf(sections.keySet()));
+        assertEquals("Jane Doe\njane@example.com\n", sections.get(Section.HEADER));
+        assertEquals("Backend engineer.\n", sections.get(Section.OBJECTIVE));
+        assertEquals("Engineer at Acme, 2019 - Present\n", sections.get(Section.EXPERIENCE));
+    }
+
+    @Test
+    void bodyLinesAreNotHeadings() {
+        Map<Section, String> sections = ResumeTextSections.split("""
+                Experience
+                Skills matter more than titles, and I have led teams of five
+                Experience in Java
+                """);
+
+        assertEquals(List.of(Section.EXPERIENCE), List.copyOf(sections.keySet()));
+        assertEquals("Skills matter more than titles, and I have led teams of five\nExperience in Java\n",
+                sections.get(Section.EXPERIENCE));
+    }
+
+    @Test
+    void repeatedHeadingsAccumulateAndUnknownHeadingsStayWithTheSectionAbove() {
+        Map<Section, String> sections = ResumeTextSections.split("""
+                Projects
+                Ledger
+                Volunteering
+                Food bank rota app
+                Education
+                BSc Computer Science
+                Projects
+                Compiler
+                """);
+
+        assertEquals("Ledger\nVolunteering\nFood bank rota app\nCompiler\n", sections.get(Section.PROJECTS));
+        assertEquals("BSc Computer Science\n", sections.get(Section.EDUCATION));
+    }
+
+    @Test
+    void textWithoutHeadingsIsAllHeader() {
+        assertEquals(Map.of(Section.HEADER, "Jane Doe\nJava developer\n"),
+                ResumeTextSections.split("Jane Doe\r\nJava developer"));
+        assertTrue(ResumeTextSections.split(null).isEmpty());
+    }
+}
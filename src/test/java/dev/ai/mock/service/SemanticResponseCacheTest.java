@@ -0,0 +1,108 @@
+package dev.ai.mock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SemanticResponseCacheTest {
+
+    private static final String SYSTEM = "You are interviewing for Backend Engineer at Initech.";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SemanticResponseCache cache = new SemanticResponseCache(
+            new StaticListableBeanFactory(Map.of("embeddingModel", new BagOfWordsEmbeddingModel()))
+                    .getBeanProvider(EmbeddingModel.class),
+            Set.of("start"), 0.95, Duration.ofHours(1), 100, meterRegistry);
+    private final FakeChatModel chatModel = new FakeChatModel();
+    private final ChatClient chatClient = ChatClient.builder(chatModel).defaultAdvisors(cache).build();
+
+    @Test
+    void genericAnswerIsServedToACandidateWithTheSameProfile() {
+        chatModel.answer = "Walk me through a Kafka pipeline you built and how you scaled it.";
+
+        assertEquals(chatModel.answer, ask("Jane Doe", "Acme"));
+        assertEquals(chatModel.answer, ask("Bob Roe", "Globex"));
+
+        assertEquals(1, chatModel.calls);
+        assertEquals(1, meterRegistry.get("interview.semantic.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void answerNamingTheCandidateOrTheirEmployerIsNotCached() {
+        chatModel.answer = "Hi Jane! Tell me about the Kafka pipeline you built.";
+        ask("Jane Doe", "Acme");
+        chatModel.answer = "Tell me about your time at ACME and the pipeline you built there.";
+        ask("Jane Doe", "Acme");
+
+        chatModel.answer = "Hi Bob! Tell me about the Kafka pipeline you built.";
+        assertEquals(chatModel.answer, ask("Bob Roe", "Globex"));
+
+        assertEquals(3, chatModel.calls);
+        assertEquals(3, meterRegistry.get("interview.semantic.cache.uncached").counter().count());
+        assertEquals(0, cache.size());
+    }
+
+    private String ask(String name, String employer) {
+        String digest = "Candidate: " + name + "\nSkills: Java, Kafka, PostgreSQL\nExperience:\n- Backend Engineer, "
+                + employer + ", 2019 - Present: built the event pipeline on Kafka";
+        return chatClient.prompt()
+                .advisors(a -> a.param(SemanticResponseCache.ENDPOINT, "start")
+                        .param(SemanticResponseCache.PERSONAL_TERMS, List.of(name, name.split(" ")[0], employer)))
+                .system(SYSTEM)
+                .user(digest)
+                .call()
+                .content();
+    }
+
+    private static final class FakeChatModel implements ChatModel {
+        private String answer;
+        private int calls;
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls++;
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(answer))));
+        }
+    }
+
+    /** Hashes words into buckets: texts sharing no words are orthogonal. */
+    private static final class BagOfWordsEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (String text : request.getInstructions()) {
+                float[] vector = new float[384];
+                for (String word : AnswerPreScorer.contentWords(text)) {
+                    vector[Math.floorMod(word.hashCode(), vector.length)] += 1;
+                }
+                embeddings.add(new Embedding(vector, embeddings.size()));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
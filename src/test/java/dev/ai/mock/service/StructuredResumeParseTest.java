@@ -0,0 +1,177 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.entities.ResumeJsonEntity;
+import dev.ai.mock.records.ResumeContent;
+import dev.ai.mock.records.WorkExperience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StructuredResumeParseTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String RESUME = """
+            Jane Doe
+            jane@example.com
+            Summary
+            Backend engineer building payment systems for a decade.
+            Skills
+            Java, Kafka
+            Experience
+            Senior Engineer at Acme, 2019 - Present
+            Built the payment ledger and its reconciliation jobs.
+            Projects
+            Ledger: double-entry bookkeeping service
+            Certifications
+            AWS Solutions Architect
+            """;
+    private static final ResumeContent STORED = new ResumeContent("Jane Doe", null, List.of("jane@example.com"), List.of(),
+            "Backend engineer", List.of("Java", "Kafka"), List.of(),
+            List.of(new WorkExperience("Senior Engineer", "Acme", "2019 - Present", null, null)), List.of(), List.of(),
+            List.of("AWS Solutions Architect"), List.of());
+
+    private final FakeChatModel chatModel = new FakeChatModel();
+    private final ResumeFormatService resumeFormatService = mock(ResumeFormatService.class);
+    private final ResumeParseCache resumeParseCache = mock(ResumeParseCache.class);
+    private final StructuredResumeParse parse = new StructuredResumeParse(ChatClient.builder(chatModel), resumeFormatService,
+            resumeParseCache, mock(ResumeEmbeddingIndex.class), ObservationRegistry.NOOP, new SimpleMeterRegistry(), true, 0.5);
+
+    StructuredResumeParseTest() {
+        when(resumeParseCache.key(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(resumeParseCache.get(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void firstUploadIsExtractedWhole() {
+        when(resumeFormatService.getStoredResume(USER_ID)).thenReturn(Optional.empty());
+        chatModel.answer = "{\"candidateName\": \"Jane Doe\", \"skills\": [\"Java\", \"Kafka\"]}";
+
+        ResumeContent parsed = parse.structuredResume(RESUME, USER_ID);
+
+        assertEquals("Jane Doe", parsed.candidateName());
+        assertEquals(1, chatModel.prompts.size());
+        assertTrue(chatModel.prompts.get(0).contains("AWS Solutions Architect"));
+        assertFalse(chatModel.prompts.get(0).contains("Only some sections"));
+    }
+
+    @Test
+    void onlyChangedSectionsAreReextractedAndMerged() {
+        storedFrom(RESUME);
+        chatModel.answer = "{\"skills\": [\"Java\", \"Kafka\", \"Go\"]}";
+
+        ResumeContent parsed = parse.structuredResume(RESUME.replace("Java, Kafka", "Java, Kafka, Go"), USER_ID);
+
+        assertEquals(1, chatModel.prompts.size());
+        String prompt = chatModel.prompts.get(0);
+        assertTrue(prompt.contains("Only some sections") && prompt.contains("Java, Kafka, Go"));
+        assertFalse(prompt.contains("Senior Engineer at Acme"));
+        assertEquals(List.of("Java", "Kafka", "Go"), parsed.skills());
+        assertEquals(STORED.workExperience(), parsed.workExperience());
+        assertEquals(STORED.candidateName(), parsed.candidateName());
+        assertEquals(STORED.certifications(), parsed.certifications());
+    }
+
+    @Test
+    void removedSectionIsClearedWithoutAModelCall() {
+        storedFrom(RESUME);
+
+        ResumeContent parsed = parse.structuredResume(RESUME.replace("Certifications\nAWS Solutions Architect\n", ""), USER_ID);
+
+        assertTrue(chatModel.prompts.isEmpty());
+        assertNull(parsed.certifications());
+        assertEquals(STORED.skills(), parsed.skills());
+        assertEquals(STORED.workExperience(), parsed.workExperience());
+    }
+
+    @Test
+    void unchangedUploadReusesTheStoredResume() {
+        storedFrom(RESUME);
+
+        assertEquals(STORED, parse.structuredResume(RESUME, USER_ID));
+        assertTrue(chatModel.prompts.isEmpty());
+    }
+
+    @Test
+    void mostlyChangedUploadFallsBackToAFullExtraction() {
+        storedFrom(RESUME);
+        chatModel.answer = "{\"candidateName\": \"Jane Doe\"}";
+        String rewritten = RESUME
+                .replace("Backend engineer building payment systems for a decade.", "Staff engineer leading platform teams.")
+                .replace("Senior Engineer at Acme, 2019 - Present\nBuilt the payment ledger and its reconciliation jobs.",
+                        "Staff Engineer at Globex, 2023 - Present\nLed the move of every service to Kubernetes.")
+                .replace("Ledger: double-entry bookkeeping service", "Scheduler: distributed cron for batch jobs");
+
+        parse.structuredResume(rewritten, USER_ID);
+
+        assertEquals(1, chatModel.prompts.size());
+        assertFalse(chatModel.prompts.get(0).contains("Only some sections"));
+        assertTrue(chatModel.prompts.get(0).contains("Jane Doe"));
+    }
+
+    @Test
+    void fingerprintsOfTheUploadAreSavedWithTheResume() {
+        when(resumeFormatService.getStoredResume(USER_ID)).thenReturn(Optional.empty());
+        chatModel.answer = "{\"candidateName\": \"Jane Doe\"}";
+
+        parse.structuredResume(RESUME, USER_ID);
+
+        assertEquals(List.of("HEADER", "OBJECTIVE", "SKILLS", "EXPERIENCE", "PROJECTS", "CERTIFICATIONS"),
+                List.copyOf(captureFingerprints().getValue().keySet()));
+    }
+
+    /**
+     * The stored resume, with the section fingerprints of the upload it came from.
+     */
+    private void storedFrom(String rawText) {
+        ResumeJsonEntity entity = new ResumeJsonEntity();
+        entity.setResumeJson(STORED);
+        when(resumeFormatService.getStoredResume(USER_ID)).thenReturn(Optional.empty());
+        chatModel.answer = "{}";
+        parse.structuredResume(rawText, USER_ID);
+        entity.setSectionFingerprints(captureFingerprints().getValue());
+        when(resumeFormatService.getStoredResume(USER_ID)).thenReturn(Optional.of(entity));
+        chatModel.prompts.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Map<String, String>> captureFingerprints() {
+        ArgumentCaptor<Map<String, String>> fingerprints = ArgumentCaptor.forClass(Map.class);
+        verify(resumeFormatService).saveResume(any(ResumeContent.class), eq(USER_ID), fingerprints.capture());
+        return fingerprints;
+    }
+
+    /** Answers every prompt with {@link #answer} and records the prompt text. */
+    private static final class FakeChatModel implements ChatModel {
+        private final List<String> prompts = new ArrayList<>();
+        private String answer = "{}";
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            prompts.add(prompt.getContents());
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(answer))));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.ai.mock.service;
+
+import dev.ai.mock.entities.UserEntity;
+import dev.ai.mock.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TrialService.class, UserAccountCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrialServiceTest {
+
+    @Autowired
+    private TrialService trialService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentStartsNeverSpendMoreThanTheAvailableTrials() throws Exception {
+        Long userId = newUser("concurrent@example.com", false, 5);
+
+        int attempts = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return trialService.tryConsume(userId);
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    granted++;
+                }
+            }
+            assertEquals(5, granted);
+            assertEquals(0, userRepository.findById(userId).orElseThrow().getTrials());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void proUsersDoNotSpendTrials() {
+        Long userId = newUser("pro@example.com", true, 0);
+
+        assertTrue(trialService.tryConsume(userId));
+        assertTrue(trialService.tryConsume(userId));
+        assertEquals(0, userRepository.findById(userId).orElseThrow().getTrials());
+    }
+
+    @Test
+    void unknownUsersAreRejected() {
+        assertFalse(trialService.tryConsume(Long.MAX_VALUE));
+    }
+
+    private Long newUser(String email, boolean pro, int trials) {
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPro(pro);
+        user.setTrials(trials);
+        return userRepository.save(user).getId();
+    }
+}